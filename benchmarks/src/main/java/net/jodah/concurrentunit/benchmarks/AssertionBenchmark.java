@@ -0,0 +1,89 @@
+/*
+ * Copyright 2010-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package net.jodah.concurrentunit.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.jodah.concurrentunit.Waiter;
+
+/**
+ * Measures passing {@link Waiter} assertions, as made by worker loops that assert on every iteration. Run with
+ * {@code -prof gc} to observe the allocation per assertion.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AssertionBenchmark {
+  final Waiter waiter = new Waiter();
+  final int[] expected = { 1, 2, 3, 4, 5, 6, 7, 8 };
+  final int[] actual = expected.clone();
+  int value;
+
+  @Benchmark
+  public void assertTrue() {
+    waiter.assertTrue(value++ >= 0);
+  }
+
+  @Benchmark
+  public void assertTrueWithSuppliedMessage() {
+    final int v = value++;
+    waiter.assertTrue(v >= 0, () -> "value was " + v);
+  }
+
+  @Benchmark
+  public String assertTrueWithEagerMessage() {
+    int v = value++;
+    String message = "value was " + v;
+    waiter.assertTrue(v >= 0);
+    return message;
+  }
+
+  @Benchmark
+  public void assertEqualsInt() {
+    int v = value++;
+    waiter.assertEquals(v, v);
+  }
+
+  @Benchmark
+  public void assertEqualsBoxed() {
+    Integer v = value++;
+    waiter.assertEquals((Object) v, (Object) v.intValue());
+  }
+
+  @Benchmark
+  public void assertEqualsDouble() {
+    double v = value++;
+    waiter.assertEquals(v, v + 0.001, 0.01);
+  }
+
+  @Benchmark
+  public void assertArrayEqualsInt() {
+    waiter.assertArrayEquals(expected, actual);
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2010-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package net.jodah.concurrentunit.benchmarks;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.jodah.concurrentunit.Waiter;
+
+/**
+ * Measures awaiting a {@link Waiter} whose expected resumes have already occurred, as is common with fast executors.
+ * Run with {@code -prof gc} to observe allocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AwaitAfterResumeBenchmark {
+  final Waiter waiter = new Waiter();
+  final CountDownLatch latch = new CountDownLatch(0);
+
+  @Benchmark
+  public void waiterAwait() throws TimeoutException, InterruptedException {
+    waiter.resume();
+    waiter.await();
+  }
+
+  @Benchmark
+  public void waiterTimedAwait() throws TimeoutException, InterruptedException {
+    waiter.resume();
+    waiter.await(1, TimeUnit.SECONDS);
+  }
+
+  @Benchmark
+  public void waiterAwaitMany() throws TimeoutException, InterruptedException {
+    for (int i = 0; i < 4; i++)
+      waiter.resume();
+    waiter.await(1, TimeUnit.SECONDS, 4);
+  }
+
+  @Benchmark
+  public boolean countDownLatchTimedAwait() throws InterruptedException {
+    latch.countDown();
+    return latch.await(1, TimeUnit.SECONDS);
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2010-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package net.jodah.concurrentunit.benchmarks;
+
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.jodah.concurrentunit.Waiter;
+
+/**
+ * Measures {@code await} wake-up latency as the round trip time of a ping-pong between the benchmark thread and an
+ * echo thread, each waking the other once per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AwaitBenchmark {
+  /**
+   * Runs an echo thread until the trial is torn down.
+   */
+  public static abstract class Echo {
+    private Thread echo;
+
+    @Setup(Level.Trial)
+    public void startEcho() {
+      echo = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            while (!Thread.currentThread().isInterrupted())
+              echo();
+          } catch (Exception ignore) {
+          }
+        }
+      });
+      echo.setDaemon(true);
+      echo.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopEcho() throws InterruptedException {
+      echo.interrupt();
+      echo.join(1000);
+    }
+
+    abstract void echo() throws Exception;
+  }
+
+  @State(Scope.Thread)
+  public static class WaiterEcho extends Echo {
+    final Waiter ping = new Waiter();
+    final Waiter pong = new Waiter();
+
+    @Override
+    void echo() throws Exception {
+      ping.await();
+      pong.resume();
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class SpinningWaiterEcho extends Echo {
+    final Waiter ping = Waiter.builder().spinWait().build();
+    final Waiter pong = Waiter.builder().spinWait().build();
+
+    @Override
+    void echo() throws Exception {
+      ping.await();
+      pong.resume();
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class PhaserEcho extends Echo {
+    final Phaser phaser = new Phaser(2);
+
+    @Override
+    void echo() throws Exception {
+      phaser.awaitAdvanceInterruptibly(phaser.arrive());
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class CyclicBarrierEcho extends Echo {
+    final CyclicBarrier barrier = new CyclicBarrier(2);
+
+    @Override
+    void echo() throws Exception {
+      barrier.await();
+    }
+  }
+
+  @Benchmark
+  public void waiter(WaiterEcho state) throws TimeoutException, InterruptedException {
+    state.ping.resume();
+    state.pong.await();
+  }
+
+  @Benchmark
+  public void spinningWaiter(SpinningWaiterEcho state) throws TimeoutException, InterruptedException {
+    state.ping.resume();
+    state.pong.await();
+  }
+
+  @Benchmark
+  public int phaser(PhaserEcho state) {
+    return state.phaser.arriveAndAwaitAdvance();
+  }
+
+  @Benchmark
+  public int cyclicBarrier(CyclicBarrierEcho state) throws InterruptedException, BrokenBarrierException {
+    return state.barrier.await();
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2010-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package net.jodah.concurrentunit.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.jodah.concurrentunit.internal.ReentrantCircuit;
+
+/**
+ * Measures the uncontended cost of {@link ReentrantCircuit} operations for fair and non-fair circuits.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CircuitBenchmark {
+  @Param({ "true", "false" })
+  boolean fair;
+  ReentrantCircuit circuit;
+
+  @Setup
+  public void setup() {
+    circuit = new ReentrantCircuit(fair, false);
+  }
+
+  @Benchmark
+  public void openClose() {
+    circuit.open();
+    circuit.close();
+  }
+
+  @Benchmark
+  public void awaitClosed() throws InterruptedException {
+    circuit.await();
+  }
+
+  @Benchmark
+  public boolean timedAwaitClosed() throws InterruptedException {
+    return circuit.await(1, TimeUnit.SECONDS);
+  }
+}
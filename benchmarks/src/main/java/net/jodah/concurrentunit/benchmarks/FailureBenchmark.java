@@ -0,0 +1,83 @@
+/*
+ * Copyright 2010-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package net.jodah.concurrentunit.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.jodah.concurrentunit.Waiter;
+
+/**
+ * Measures failing a {@link Waiter} that has already been failed, as happens when many workers in a stress test observe
+ * the same broken invariant.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FailureBenchmark {
+  Waiter waiter;
+  Waiter stacklessWaiter;
+  Waiter dedupingWaiter;
+
+  @Setup
+  public void setup() {
+    waiter = failed(new Waiter());
+    stacklessWaiter = failed(Waiter.builder().stacklessSecondaryFailures().build());
+    dedupingWaiter = failed(Waiter.builder().dedupeFailures(1).build());
+  }
+
+  @Benchmark
+  public AssertionError secondaryFailure() {
+    return fail(waiter);
+  }
+
+  @Benchmark
+  public AssertionError stacklessSecondaryFailure() {
+    return fail(stacklessWaiter);
+  }
+
+  @Benchmark
+  public AssertionError dedupedSecondaryFailure() {
+    return fail(dedupingWaiter);
+  }
+
+  private static Waiter failed(Waiter waiter) {
+    fail(waiter);
+    return waiter;
+  }
+
+  private static AssertionError fail(Waiter waiter) {
+    try {
+      waiter.assertEquals(1, 2);
+      return null;
+    } catch (AssertionError e) {
+      return e;
+    }
+  }
+}
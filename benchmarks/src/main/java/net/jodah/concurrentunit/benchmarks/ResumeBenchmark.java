@@ -0,0 +1,125 @@
+/*
+ * Copyright 2010-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package net.jodah.concurrentunit.benchmarks;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.jodah.concurrentunit.Waiter;
+
+/**
+ * Measures the throughput of resuming a shared {@link Waiter} against the equivalent operations on other j.u.c
+ * synchronizers. Run with {@code -t <threads>} to vary the number of concurrently resuming threads. The
+ * {@code *WhileAwaited} variants resume while another thread is parked awaiting the resumes, which is when resumers
+ * must check whether they satisfied the awaiter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResumeBenchmark {
+  Waiter waiter;
+  Waiter stripedWaiter;
+  CountDownLatch latch;
+  Phaser phaser;
+  Waiter awaitedWaiter;
+  Waiter awaitedStripedWaiter;
+  Thread[] awaiters;
+
+  @Setup(Level.Iteration)
+  public void setup() {
+    waiter = new Waiter();
+    stripedWaiter = Waiter.striped();
+    latch = new CountDownLatch(Integer.MAX_VALUE);
+    phaser = new Phaser(1);
+    awaitedWaiter = new Waiter();
+    awaitedStripedWaiter = Waiter.striped();
+    awaiters = new Thread[] { park(awaitedWaiter), park(awaitedStripedWaiter) };
+  }
+
+  @TearDown(Level.Iteration)
+  public void tearDown() throws InterruptedException {
+    for (Thread awaiter : awaiters) {
+      awaiter.interrupt();
+      awaiter.join();
+    }
+  }
+
+  @Benchmark
+  public void waiterResume() {
+    waiter.resume();
+  }
+
+  @Benchmark
+  public void stripedWaiterResume() {
+    stripedWaiter.resume();
+  }
+
+  @Benchmark
+  public void waiterResumeWhileAwaited() {
+    awaitedWaiter.resume();
+  }
+
+  @Benchmark
+  public void stripedWaiterResumeWhileAwaited() {
+    awaitedStripedWaiter.resume();
+  }
+
+  @Benchmark
+  public void countDownLatchCountDown() {
+    latch.countDown();
+  }
+
+  @Benchmark
+  public int phaserArrive() {
+    return phaser.arrive();
+  }
+
+  /**
+   * Starts a thread that parks awaiting more resumes than the benchmark performs, returning once it is waiting.
+   */
+  private static Thread park(Waiter waiter) {
+    Thread awaiter = new Thread(() -> {
+      try {
+        waiter.await(0, TimeUnit.MILLISECONDS, Long.MAX_VALUE >> 2);
+      } catch (InterruptedException expected) {
+      } catch (Exception e) {
+        throw new IllegalStateException(e);
+      }
+    });
+    awaiter.setDaemon(true);
+    awaiter.start();
+    while (awaiter.getState() != Thread.State.WAITING)
+      Thread.yield();
+    return awaiter;
+  }
+}
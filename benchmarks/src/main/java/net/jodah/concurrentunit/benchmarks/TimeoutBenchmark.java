@@ -0,0 +1,107 @@
+/*
+ * Copyright 2010-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package net.jodah.concurrentunit.benchmarks;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.jodah.concurrentunit.Waiter;
+import net.jodah.concurrentunit.internal.TimerWheel;
+import net.jodah.concurrentunit.internal.TimerWheel.Timeout;
+
+/**
+ * Measures the per-timeout cost of keeping {@link #OUTSTANDING} timed waits outstanding at once, then satisfying them
+ * all before they expire.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimeoutBenchmark {
+  static final int OUTSTANDING = 100000;
+  static final Runnable NOOP = new Runnable() {
+    @Override
+    public void run() {
+    }
+  };
+
+  final Waiter[] waiters = new Waiter[OUTSTANDING];
+  final Timeout[] timeouts = new Timeout[OUTSTANDING];
+  @SuppressWarnings("unchecked")
+  final ScheduledFuture<?>[] futures = new ScheduledFuture[OUTSTANDING];
+  TimerWheel timer;
+  ScheduledThreadPoolExecutor scheduler;
+
+  @Setup
+  public void setup() {
+    for (int i = 0; i < OUTSTANDING; i++)
+      waiters[i] = new Waiter();
+    timer = new TimerWheel("benchmark-timer", 1, TimeUnit.MILLISECONDS, 512);
+    scheduler = new ScheduledThreadPoolExecutor(1);
+    scheduler.setRemoveOnCancelPolicy(true);
+  }
+
+  @TearDown
+  public void tearDown() {
+    scheduler.shutdownNow();
+  }
+
+  /**
+   * Timed asynchronous awaits on separate Waiters, which share a wheel timer, satisfied by a resume.
+   */
+  @Benchmark
+  @OperationsPerInvocation(OUTSTANDING)
+  public void waiterAwaitAsync() {
+    for (Waiter waiter : waiters)
+      waiter.awaitAsync(10, TimeUnit.SECONDS);
+    for (Waiter waiter : waiters)
+      waiter.resume();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OUTSTANDING)
+  public void timerWheel() {
+    for (int i = 0; i < OUTSTANDING; i++)
+      timeouts[i] = timer.schedule(NOOP, 10, TimeUnit.SECONDS);
+    for (Timeout timeout : timeouts)
+      timeout.cancel();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OUTSTANDING)
+  public void scheduledExecutor() {
+    for (int i = 0; i < OUTSTANDING; i++)
+      futures[i] = scheduler.schedule(NOOP, 10, TimeUnit.SECONDS);
+    for (ScheduledFuture<?> future : futures)
+      future.cancel(false);
+  }
+}
@@ -15,8 +15,11 @@
  */
 package net.jodah.concurrentunit;
 
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
 
 /**
  * Convenience support class, wrapping a {@link Waiter}.
@@ -33,6 +36,104 @@ public abstract class ConcurrentTestCase {
     waiter.assertEquals(expected, actual);
   }
 
+  /**
+   * @see Waiter#assertEquals(Object, Object, Supplier)
+   */
+  public void threadAssertEquals(Object expected, Object actual, Supplier<String> message) {
+    waiter.assertEquals(expected, actual, message);
+  }
+
+  /**
+   * @see Waiter#assertEquals(boolean, boolean)
+   */
+  public void threadAssertEquals(boolean expected, boolean actual) {
+    waiter.assertEquals(expected, actual);
+  }
+
+  /**
+   * @see Waiter#assertEquals(byte, byte)
+   */
+  public void threadAssertEquals(byte expected, byte actual) {
+    waiter.assertEquals(expected, actual);
+  }
+
+  /**
+   * @see Waiter#assertEquals(char, char)
+   */
+  public void threadAssertEquals(char expected, char actual) {
+    waiter.assertEquals(expected, actual);
+  }
+
+  /**
+   * @see Waiter#assertEquals(int, int)
+   */
+  public void threadAssertEquals(int expected, int actual) {
+    waiter.assertEquals(expected, actual);
+  }
+
+  /**
+   * @see Waiter#assertEquals(long, long)
+   */
+  public void threadAssertEquals(long expected, long actual) {
+    waiter.assertEquals(expected, actual);
+  }
+
+  /**
+   * @see Waiter#assertEquals(double, double, double)
+   */
+  public void threadAssertEquals(double expected, double actual, double delta) {
+    waiter.assertEquals(expected, actual, delta);
+  }
+
+  /**
+   * @see Waiter#assertArrayEquals(boolean[], boolean[])
+   */
+  public void threadAssertArrayEquals(boolean[] expected, boolean[] actual) {
+    waiter.assertArrayEquals(expected, actual);
+  }
+
+  /**
+   * @see Waiter#assertArrayEquals(byte[], byte[])
+   */
+  public void threadAssertArrayEquals(byte[] expected, byte[] actual) {
+    waiter.assertArrayEquals(expected, actual);
+  }
+
+  /**
+   * @see Waiter#assertArrayEquals(char[], char[])
+   */
+  public void threadAssertArrayEquals(char[] expected, char[] actual) {
+    waiter.assertArrayEquals(expected, actual);
+  }
+
+  /**
+   * @see Waiter#assertArrayEquals(int[], int[])
+   */
+  public void threadAssertArrayEquals(int[] expected, int[] actual) {
+    waiter.assertArrayEquals(expected, actual);
+  }
+
+  /**
+   * @see Waiter#assertArrayEquals(long[], long[])
+   */
+  public void threadAssertArrayEquals(long[] expected, long[] actual) {
+    waiter.assertArrayEquals(expected, actual);
+  }
+
+  /**
+   * @see Waiter#assertArrayEquals(double[], double[])
+   */
+  public void threadAssertArrayEquals(double[] expected, double[] actual) {
+    waiter.assertArrayEquals(expected, actual);
+  }
+
+  /**
+   * @see Waiter#assertArrayEquals(Object[], Object[])
+   */
+  public void threadAssertArrayEquals(Object[] expected, Object[] actual) {
+    waiter.assertArrayEquals(expected, actual);
+  }
+
   /**
    * @see Waiter#assertTrue(boolean)
    */
@@ -40,6 +141,13 @@ public abstract class ConcurrentTestCase {
     waiter.assertFalse(b);
   }
 
+  /**
+   * @see Waiter#assertFalse(boolean, Supplier)
+   */
+  public void threadAssertFalse(boolean b, Supplier<String> message) {
+    waiter.assertFalse(b, message);
+  }
+
   /**
    * @see Waiter#assertNotNull(Object)
    */
@@ -47,6 +155,13 @@ public abstract class ConcurrentTestCase {
     waiter.assertNotNull(object);
   }
 
+  /**
+   * @see Waiter#assertNotNull(Object, Supplier)
+   */
+  public void threadAssertNotNull(Object object, Supplier<String> message) {
+    waiter.assertNotNull(object, message);
+  }
+
   /**
    * @see Waiter#assertNull(Object)
    */
@@ -54,6 +169,13 @@ public abstract class ConcurrentTestCase {
     waiter.assertNull(x);
   }
 
+  /**
+   * @see Waiter#assertNull(Object, Supplier)
+   */
+  public void threadAssertNull(Object x, Supplier<String> message) {
+    waiter.assertNull(x, message);
+  }
+
   /**
    * @see Waiter#assertTrue(boolean)
    */
@@ -61,18 +183,60 @@ public abstract class ConcurrentTestCase {
     waiter.assertTrue(b);
   }
 
+  /**
+   * @see Waiter#assertTrue(boolean, Supplier)
+   */
+  public void threadAssertTrue(boolean b, Supplier<String> message) {
+    waiter.assertTrue(b, message);
+  }
+
+  /**
+   * @see Waiter#register(Thread)
+   */
+  public Thread register(Thread thread) {
+    return waiter.register(thread);
+  }
+
+  /**
+   * @see Waiter#threadFactory()
+   */
+  public ThreadFactory threadFactory() {
+    return waiter.threadFactory();
+  }
+
+  /**
+   * @see Waiter#executor()
+   */
+  public WaiterExecutor executor() {
+    return waiter.executor();
+  }
+
+  /**
+   * @see Waiter#isFailed()
+   */
+  public boolean isFailed() {
+    return waiter.isFailed();
+  }
+
+  /**
+   * @see Waiter#shouldStop()
+   */
+  public boolean shouldStop() {
+    return waiter.shouldStop();
+  }
+
   /**
    * @see Waiter#fail()
    */
   public void threadFail() {
-    threadFail(new AssertionError());
+    waiter.fail();
   }
 
   /**
    * @see Waiter#fail(String)
    */
   public void threadFail(String reason) {
-    threadFail(new AssertionError(reason));
+    waiter.fail(reason);
   }
 
   /**
@@ -89,6 +253,30 @@ public abstract class ConcurrentTestCase {
     waiter.rethrow(reason);
   }
 
+  /**
+   * @see Waiter#runConcurrently(int, int, IntConsumer)
+   */
+  protected RunResult runConcurrently(int threads, int iterations, IntConsumer body)
+      throws TimeoutException, InterruptedException {
+    return waiter.runConcurrently(threads, iterations, body);
+  }
+
+  /**
+   * @see Waiter#runConcurrently(int, int, long, TimeUnit, IntConsumer)
+   */
+  protected RunResult runConcurrently(int threads, int iterations, long delay, TimeUnit timeUnit, IntConsumer body)
+      throws TimeoutException, InterruptedException {
+    return waiter.runConcurrently(threads, iterations, delay, timeUnit, body);
+  }
+
+  /**
+   * @see Waiter#sweep(int, int, IntConsumer)
+   */
+  protected SweepResult sweep(int maxThreads, int iterations, IntConsumer body)
+      throws TimeoutException, InterruptedException {
+    return waiter.sweep(maxThreads, iterations, body);
+  }
+
   /**
    * @see Waiter#await()
    */
@@ -110,6 +298,13 @@ public abstract class ConcurrentTestCase {
     waiter.await(delay, expectedResumes);
   }
 
+  /**
+   * @see Waiter#await(long, long)
+   */
+  protected void await(long delay, long expectedResumes) throws TimeoutException, InterruptedException {
+    waiter.await(delay, expectedResumes);
+  }
+
   /**
    * @see Waiter#await(long, TimeUnit)
    */
@@ -124,10 +319,59 @@ public abstract class ConcurrentTestCase {
     waiter.await(delay, timeUnit, expectedResumes);
   }
 
+  /**
+   * @see Waiter#await(long, TimeUnit, long)
+   */
+  protected void await(long delay, TimeUnit timeUnit, long expectedResumes) throws TimeoutException, InterruptedException {
+    waiter.await(delay, timeUnit, expectedResumes);
+  }
+
   /**
    * @see Waiter#resume()
    */
   protected void resume() {
     waiter.resume();
   }
+
+  /**
+   * @see Waiter#resume(int)
+   */
+  protected void resume(int count) {
+    waiter.resume(count);
+  }
+
+  /**
+   * @see Waiter#begin()
+   */
+  protected long begin() {
+    return waiter.begin();
+  }
+
+  /**
+   * @see Waiter#resumeSince(long)
+   */
+  protected void resumeSince(long token) {
+    waiter.resumeSince(token);
+  }
+
+  /**
+   * @see Waiter#assertPercentile(double, long, TimeUnit)
+   */
+  protected void assertPercentile(double percentile, long max, TimeUnit timeUnit) {
+    waiter.assertPercentile(percentile, max, timeUnit);
+  }
+
+  /**
+   * @see Waiter#assertMaxLatency(long, TimeUnit)
+   */
+  protected void assertMaxLatency(long max, TimeUnit timeUnit) {
+    waiter.assertMaxLatency(max, timeUnit);
+  }
+
+  /**
+   * @see Waiter#latencies()
+   */
+  protected Latencies latencies() {
+    return waiter.latencies();
+  }
 }
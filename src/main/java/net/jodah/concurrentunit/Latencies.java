@@ -0,0 +1,98 @@
+/*
+ * Copyright 2010-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package net.jodah.concurrentunit;
+
+import java.util.concurrent.TimeUnit;
+
+import net.jodah.concurrentunit.internal.LatencyRecorder;
+
+/**
+ * A histogram of the latencies between {@link Waiter#begin()} and {@link Waiter#resumeSince(long)} that were recorded
+ * between two awaits. Values are accurate to within about 3%.
+ *
+ * @author Jonathan Halterman
+ */
+public final class Latencies {
+  static final Latencies EMPTY = new Latencies(new long[LatencyRecorder.BUCKETS], 0);
+
+  private final long[] counts;
+  private final long count;
+  private final long maxNanos;
+
+  Latencies(long[] counts, long maxNanos) {
+    this.counts = counts;
+    long count = 0;
+    int highest = 0;
+    for (int i = 0; i < counts.length; i++) {
+      count += counts[i];
+      if (counts[i] != 0)
+        highest = i;
+    }
+    this.count = count;
+    this.maxNanos = Math.min(LatencyRecorder.upperBound(highest), maxNanos);
+  }
+
+  /**
+   * Returns the number of latencies recorded.
+   */
+  public long count() {
+    return count;
+  }
+
+  /**
+   * Returns the latency at or below which {@code percentile} percent of the recorded latencies fall, else 0 if none
+   * were recorded.
+   *
+   * @throws IllegalArgumentException if {@code percentile} is not between 0 and 100
+   */
+  public long percentile(double percentile, TimeUnit timeUnit) {
+    return timeUnit.convert(percentileNanos(percentile), TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Returns the largest latency recorded, else 0 if none were recorded.
+   */
+  public long max(TimeUnit timeUnit) {
+    return timeUnit.convert(maxNanos, TimeUnit.NANOSECONDS);
+  }
+
+  long percentileNanos(double percentile) {
+    if (!(percentile >= 0 && percentile <= 100))
+      throw new IllegalArgumentException("percentile must be between 0 and 100");
+    if (count == 0)
+      return 0;
+
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+    long seen = 0;
+    for (int i = 0; i < counts.length; i++) {
+      seen += counts[i];
+      if (seen >= rank)
+        return Math.min(LatencyRecorder.upperBound(i), maxNanos);
+    }
+    return maxNanos;
+  }
+
+  long maxNanos() {
+    return maxNanos;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("Latencies[count=%d, p50=%dus, p99=%dus, p99.9=%dus, max=%dus]", count,
+        percentile(50, TimeUnit.MICROSECONDS), percentile(99, TimeUnit.MICROSECONDS),
+        percentile(99.9, TimeUnit.MICROSECONDS), max(TimeUnit.MICROSECONDS));
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2010-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package net.jodah.concurrentunit;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asserts that a percentile of the recorded {@link Latencies} does not exceed a maximum.
+ *
+ * @author Jonathan Halterman
+ */
+final class LatencyAssertion {
+  private final double percentile;
+  private final long max;
+  private final TimeUnit timeUnit;
+  private final long maxNanos;
+
+  /**
+   * @param percentile the percentile to assert, where 100 asserts the maximum latency
+   */
+  LatencyAssertion(double percentile, long max, TimeUnit timeUnit) {
+    if (!(percentile >= 0 && percentile <= 100))
+      throw new IllegalArgumentException("percentile must be between 0 and 100");
+    this.percentile = percentile;
+    this.max = max;
+    this.timeUnit = timeUnit;
+    this.maxNanos = timeUnit.toNanos(max);
+  }
+
+  /**
+   * Returns a description of the failure if the {@code latencies} violate the assertion, else null.
+   */
+  String check(Latencies latencies) {
+    long actualNanos = percentile == 100 ? latencies.maxNanos() : latencies.percentileNanos(percentile);
+    if (actualNanos <= maxNanos)
+      return null;
+
+    String unit = timeUnit.name().toLowerCase(Locale.ROOT);
+    double actual = (double) actualNanos / timeUnit.toNanos(1);
+    String name = percentile == 100 ? "max" : "p" + (percentile == (long) percentile ? String.valueOf((long) percentile)
+        : String.valueOf(percentile));
+    return String.format(Locale.ROOT, "expected %s latency <= %d %s but was %.3f %s over %d operations", name, max, unit,
+        actual, unit, latencies.count());
+  }
+}
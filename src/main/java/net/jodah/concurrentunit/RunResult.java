@@ -0,0 +1,95 @@
+/*
+ * Copyright 2010-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package net.jodah.concurrentunit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The result of {@link Waiter#runConcurrently(int, int, java.util.function.IntConsumer) running} a body concurrently
+ * on several threads, describing the operations each thread completed and their throughput.
+ *
+ * @author Jonathan Halterman
+ */
+public final class RunResult {
+  private final long[] operations;
+  private final long[] nanos;
+  private final long wallNanos;
+
+  RunResult(long[] operations, long[] nanos, long wallNanos) {
+    this.operations = operations;
+    this.nanos = nanos;
+    this.wallNanos = wallNanos;
+  }
+
+  /**
+   * Returns the number of threads that ran the body.
+   */
+  public int threads() {
+    return operations.length;
+  }
+
+  /**
+   * Returns the number of iterations of the body that the {@code thread} completed.
+   */
+  public long operations(int thread) {
+    return operations[thread];
+  }
+
+  /**
+   * Returns the number of iterations of the body that all threads completed.
+   */
+  public long operations() {
+    long total = 0;
+    for (long ops : operations)
+      total += ops;
+    return total;
+  }
+
+  /**
+   * Returns the number of iterations per second that the {@code thread} completed while running.
+   */
+  public double opsPerSecond(int thread) {
+    return perSecond(operations[thread], nanos[thread]);
+  }
+
+  /**
+   * Returns the number of iterations per second that all threads completed over the wall time of the run.
+   */
+  public double opsPerSecond() {
+    return perSecond(operations(), wallNanos);
+  }
+
+  /**
+   * Returns the time elapsed between releasing the threads and the last of them completing.
+   */
+  public long wallTime(TimeUnit timeUnit) {
+    return timeUnit.convert(wallNanos, TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append(String.format("RunResult[threads=%d, operations=%d, wallTime=%dms, opsPerSecond=%.0f", threads(),
+        operations(), wallTime(TimeUnit.MILLISECONDS), opsPerSecond()));
+    for (int i = 0; i < operations.length; i++)
+      sb.append(String.format(", thread %d: %.0f ops/s", i, opsPerSecond(i)));
+    return sb.append(']').toString();
+  }
+
+  private static double perSecond(long operations, long nanos) {
+    return nanos == 0 ? 0 : operations * 1e9 / nanos;
+  }
+}
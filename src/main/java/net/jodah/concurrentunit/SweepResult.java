@@ -0,0 +1,117 @@
+/*
+ * Copyright 2010-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package net.jodah.concurrentunit;
+
+import net.jodah.concurrentunit.internal.ScalabilityFit;
+
+/**
+ * The result of {@link Waiter#sweep(int, int, java.util.function.IntConsumer) sweeping} a body across increasing
+ * numbers of threads, describing the throughput at each level along with a fit of the Universal Scalability Law.
+ *
+ * @author Jonathan Halterman
+ */
+public final class SweepResult {
+  private final int[] threadCounts;
+  private final double[] throughputs;
+  private final ScalabilityFit fit;
+
+  SweepResult(int[] threadCounts, double[] throughputs) {
+    this.threadCounts = threadCounts;
+    this.throughputs = throughputs;
+    this.fit = ScalabilityFit.fit(threadCounts, throughputs);
+  }
+
+  /**
+   * Returns the numbers of threads that were swept, in increasing order.
+   */
+  public int[] threadCounts() {
+    return threadCounts.clone();
+  }
+
+  /**
+   * Returns the throughput, in operations per second, measured at {@code threads}.
+   *
+   * @throws IllegalArgumentException if throughput was not measured at {@code threads}
+   */
+  public double throughput(int threads) {
+    int index = indexOf(threads);
+    if (index < 0)
+      throw new IllegalArgumentException("Throughput was not measured at " + threads + " threads");
+    return throughputs[index];
+  }
+
+  /**
+   * Returns the throughput at {@code threads} relative to {@code threads} times the throughput at one thread, where 1.0
+   * is linear scaling. The measured throughput is used if {@code threads} was swept, else the throughput predicted by
+   * the Universal Scalability Law.
+   */
+  public double efficiency(int threads) {
+    int index = indexOf(threads);
+    if (index < 0)
+      return fit.relativeCapacity(threads) / threads;
+    return throughputs[index] / (threads * throughputs[0]);
+  }
+
+  /**
+   * Returns the fitted contention coefficient, the fraction of work that is serialized.
+   */
+  public double contention() {
+    return fit.contention();
+  }
+
+  /**
+   * Returns the fitted coherency coefficient, the cost of keeping shared state consistent between threads.
+   */
+  public double coherency() {
+    return fit.coherency();
+  }
+
+  /**
+   * Returns the number of threads at which throughput is predicted to peak, else {@code Double.POSITIVE_INFINITY} if
+   * throughput is not predicted to decline.
+   */
+  public double peakThreads() {
+    return fit.peakThreads();
+  }
+
+  /**
+   * Asserts that the {@link #efficiency(int) efficiency} at {@code threads} is at least {@code minimum}.
+   *
+   * @throws AssertionError when the assertion fails
+   */
+  public SweepResult assertEfficiency(int threads, double minimum) {
+    double efficiency = efficiency(threads);
+    if (!(efficiency >= minimum))
+      throw new AssertionError(String.format("expected efficiency at %d threads >= %.2f but was %.2f, %s", threads,
+          minimum, efficiency, this));
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("SweepResult[");
+    for (int i = 0; i < threadCounts.length; i++)
+      sb.append(String.format("%d threads: %.0f ops/s, ", threadCounts[i], throughputs[i]));
+    return sb.append(String.format("contention=%.4f, coherency=%.6f]", contention(), coherency())).toString();
+  }
+
+  private int indexOf(int threads) {
+    for (int i = 0; i < threadCounts.length; i++)
+      if (threadCounts[i] == threads)
+        return i;
+    return -1;
+  }
+}
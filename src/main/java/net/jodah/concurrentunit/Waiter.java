@@ -15,30 +15,242 @@
  */
 package net.jodah.concurrentunit;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
 
+import net.jodah.concurrentunit.internal.FailureCollector;
+import net.jodah.concurrentunit.internal.FailureDeduplicator;
+import net.jodah.concurrentunit.internal.Failures;
+import net.jodah.concurrentunit.internal.Generations;
+import net.jodah.concurrentunit.internal.LatencyRecorder;
+import net.jodah.concurrentunit.internal.PackedResumeCounter;
 import net.jodah.concurrentunit.internal.ReentrantCircuit;
+import net.jodah.concurrentunit.internal.ResumeCounter;
+import net.jodah.concurrentunit.internal.SingleFailure;
+import net.jodah.concurrentunit.internal.SpinWait;
+import net.jodah.concurrentunit.internal.StacklessSecondaryFailures;
+import net.jodah.concurrentunit.internal.StripedLatencyRecorder;
+import net.jodah.concurrentunit.internal.StripedResumeCounter;
+import net.jodah.concurrentunit.internal.TimerWheel;
+import net.jodah.concurrentunit.internal.TimerWheel.Timeout;
 
 /**
  * Waits on a test, carrying out assertions, until being resumed.
+ * <p>
+ * Waiter coordinates threads using only {@code java.util.concurrent} primitives and never holds a monitor, so it may
+ * be resumed from any number of virtual threads without pinning them to their carriers.
  *
  * @author Jonathan Halterman
  */
 public class Waiter {
   private static final String TIMEOUT_MESSAGE = "Test timed out while waiting for an expected result, expectedResumes: %d, actualResumes: %d";
-  private AtomicInteger remainingResumes = new AtomicInteger(0);
-  private final ReentrantCircuit circuit = new ReentrantCircuit();
-  private volatile Throwable failure;
+  private static final long MAX_EXPECTED_RESUMES = Long.MAX_VALUE >> 1;
+  private static final long DEFAULT_WORKER_JOIN_TIMEOUT_MILLIS = 1000;
+  private static final AtomicInteger WORKER_COUNT = new AtomicInteger();
+  /** Expires await timeouts for all Waiters */
+  private static final TimerWheel TIMER = new TimerWheel("ConcurrentUnit-Timer", 1, TimeUnit.MILLISECONDS, 512);
+
+  private final ResumeCounter counter;
+  private final ReentrantCircuit circuit;
+  private final Generations generations;
+  private final AtomicReference<CompletableFuture<Void>> pending = new AtomicReference<CompletableFuture<Void>>();
+  private final Failures failures;
+  /** Whether workers should stop, having been failed or timed out since the last await began */
+  private volatile boolean stopped;
+  private final Queue<Thread> workers = new ConcurrentLinkedQueue<Thread>();
+  /** Threads awaiting a condition via {@link #awaitCondition}, which are unparked when the Waiter is failed */
+  private final Queue<Thread> conditionAwaiters = new ConcurrentLinkedQueue<Thread>();
+  private final AtomicInteger registrations = new AtomicInteger();
+  private final long workerJoinTimeoutNanos;
+  private final StripedLatencyRecorder recorder = new StripedLatencyRecorder();
+  /** Whether any latency has been recorded, so that awaits skip merging latencies until one is */
+  private volatile boolean latenciesRecorded;
+  /** The number of latencies recorded as of the last await, used to skip merging when none were recorded since */
+  private volatile long latencyCount;
+  /** The latency counts as of the last await, which are subtracted from those at the next */
+  private volatile long[] latencyBaseline;
+  private volatile Latencies latencies = Latencies.EMPTY;
+  private final Queue<LatencyAssertion> latencyAssertions = new ConcurrentLinkedQueue<LatencyAssertion>();
 
   /**
    * Creates a new Waiter.
    */
   public Waiter() {
+    this(new Builder());
+  }
+
+  private Waiter(Builder builder) {
+    this.counter = builder.striped ? new StripedResumeCounter() : new PackedResumeCounter();
+    this.circuit = new ReentrantCircuit(builder.fair, builder.spinWait);
+    this.generations = builder.generational ? new Generations() : null;
+    Failures failures;
+    if (builder.maxFailures > 0)
+      failures = new FailureCollector(builder.maxFailures);
+    else if (builder.tracedFailures >= 0)
+      failures = new FailureDeduplicator(builder.tracedFailures);
+    else
+      failures = new SingleFailure(builder.stacklessSecondaryFailures);
+    this.failures = builder.stacklessSecondaryFailures ? new StacklessSecondaryFailures(failures) : failures;
+    this.workerJoinTimeoutNanos = builder.workerJoinTimeoutNanos;
     circuit.open();
   }
 
+  /**
+   * Creates a new Waiter that accumulates {@link #resume()} calls in striped, per-thread cells rather than a single
+   * counter.
+   *
+   * @see Builder#striped()
+   */
+  public static Waiter striped() {
+    return builder().striped().build();
+  }
+
+  /**
+   * Returns a builder for configuring a new Waiter.
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Builds {@link Waiter} instances.
+   */
+  public static final class Builder {
+    private boolean striped;
+    private boolean spinWait;
+    private boolean fair = true;
+    private boolean generational;
+    private int maxFailures;
+    private int tracedFailures = -1;
+    private boolean stacklessSecondaryFailures;
+    private long workerJoinTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_WORKER_JOIN_TIMEOUT_MILLIS);
+
+    private Builder() {
+    }
+
+    /**
+     * Accumulates {@link Waiter#resume()} calls in striped, per-thread cells rather than a single counter. This reduces
+     * contention when many threads resume the same Waiter concurrently. While a thread is awaiting, the cells are only
+     * summed once a resumer's cell accumulates a batch of resumes or the count nears the expected resumes.
+     */
+    public Builder striped() {
+      striped = true;
+      return this;
+    }
+
+    /**
+     * Has awaiting threads spin, then yield, before parking. The spin budget adapts to the observed latency between
+     * {@code await} and the final {@link Waiter#resume()}, so latency-sensitive ping-pong tests avoid the cost of parking
+     * and unparking while long waits still park promptly. Spinning is skipped on uniprocessors.
+     */
+    public Builder spinWait() {
+      spinWait = true;
+      return this;
+    }
+
+    /**
+     * Releases awaiting threads without enforcing fairness, avoiding the cost of inspecting the wait queue on each
+     * await. This is suitable for the common case of a single thread awaiting the Waiter.
+     */
+    public Builder nonFair() {
+      fair = false;
+      return this;
+    }
+
+    /**
+     * Allows any number of threads to await the Waiter concurrently, each releasing when the number of resumes in the
+     * current generation reaches the number it expects. Resumes are counted from the start of a generation rather
+     * than consumed by each await, and a new generation is begun via {@link Waiter#nextGeneration()}. Failures are
+     * reported to every awaiter until the next generation begins. Cannot be combined with {@link #striped()}.
+     */
+    public Builder generational() {
+      generational = true;
+      return this;
+    }
+
+    /**
+     * Collects up to {@code maxFailures} concurrently reported failures rather than only the most recent one. The first
+     * failure is thrown from {@code await}, with the failures that followed it attached as
+     * {@link Throwable#getSuppressed() suppressed} exceptions. Failures beyond {@code maxFailures} are counted but not
+     * retained, so a storm of failing assertions cannot exhaust the heap.
+     *
+     * @throws IllegalArgumentException if {@code maxFailures} is less than 1
+     */
+    public Builder collectFailures(int maxFailures) {
+      if (maxFailures < 1)
+        throw new IllegalArgumentException("maxFailures must be >= 1");
+      this.maxFailures = maxFailures;
+      return this;
+    }
+
+    /**
+     * Counts failures by their message rather than retaining each of them, capturing a stack trace for only the first
+     * {@code tracedFailures} failures with each message. The first failure is thrown from {@code await}, with a
+     * summary such as {@code "17,342 x expected:<1> but was:<2> at FooTest.java:42"} attached as a
+     * {@link Throwable#getSuppressed() suppressed} exception for each distinct failure. This keeps assertion storms
+     * from spending their time building stack traces. Cannot be combined with {@link #collectFailures(int)}.
+     *
+     * @throws IllegalArgumentException if {@code tracedFailures} is negative
+     */
+    public Builder dedupeFailures(int tracedFailures) {
+      if (tracedFailures < 0)
+        throw new IllegalArgumentException("tracedFailures must be >= 0");
+      this.tracedFailures = tracedFailures;
+      return this;
+    }
+
+    /**
+     * Creates failures without a stack trace once a failure has been recorded, so that only the first failure carries
+     * a trace. This makes the failures that follow, such as those from the rest of the workers in a negative-path
+     * stress test, orders of magnitude cheaper. The first failure is the one thrown from {@code await}.
+     */
+    public Builder stacklessSecondaryFailures() {
+      stacklessSecondaryFailures = true;
+      return this;
+    }
+
+    /**
+     * Sets the total time that an {@code await} which fails or times out waits for {@link Waiter#register(Thread)
+     * registered} workers to terminate after interrupting them. Defaults to 1 second.
+     */
+    public Builder workerJoinTimeout(long timeout, TimeUnit timeUnit) {
+      workerJoinTimeoutNanos = timeUnit.toNanos(timeout);
+      return this;
+    }
+
+    /**
+     * Builds a new Waiter.
+     *
+     * @throws IllegalStateException if the Waiter is configured as both {@link #striped()} and
+     *           {@link #generational()}, or as both {@link #collectFailures(int)} and {@link #dedupeFailures(int)}
+     */
+    public Waiter build() {
+      if (striped && generational)
+        throw new IllegalStateException("A generational Waiter cannot be striped");
+      if (maxFailures > 0 && tracedFailures >= 0)
+        throw new IllegalStateException("A Waiter cannot both collect and dedupe failures");
+      return new Waiter(this);
+    }
+  }
+
   /**
    * Asserts that the {@code expected} values equals the {@code actual} value
    *
@@ -52,6 +264,153 @@ public class Waiter {
     fail(format(expected, actual));
   }
 
+  /**
+   * Asserts that the {@code expected} values equals the {@code actual} value, failing with the supplied
+   * {@code message}. The {@code message} is only evaluated if the assertion fails.
+   *
+   * @throws AssertionError when the assertion fails
+   */
+  public void assertEquals(Object expected, Object actual, Supplier<String> message) {
+    if (expected == null && actual == null)
+      return;
+    if (expected != null && expected.equals(actual))
+      return;
+    fail(message, format(expected, actual));
+  }
+
+  /**
+   * Asserts that the {@code expected} value equals the {@code actual} value without boxing either.
+   *
+   * @throws AssertionError when the assertion fails
+   */
+  public void assertEquals(boolean expected, boolean actual) {
+    if (expected != actual)
+      fail(format(expected, actual));
+  }
+
+  /**
+   * Asserts that the {@code expected} value equals the {@code actual} value without boxing either.
+   *
+   * @throws AssertionError when the assertion fails
+   */
+  public void assertEquals(byte expected, byte actual) {
+    if (expected != actual)
+      fail(format(expected, actual));
+  }
+
+  /**
+   * Asserts that the {@code expected} value equals the {@code actual} value without boxing either.
+   *
+   * @throws AssertionError when the assertion fails
+   */
+  public void assertEquals(char expected, char actual) {
+    if (expected != actual)
+      fail(format(expected, actual));
+  }
+
+  /**
+   * Asserts that the {@code expected} value equals the {@code actual} value without boxing either.
+   *
+   * @throws AssertionError when the assertion fails
+   */
+  public void assertEquals(int expected, int actual) {
+    if (expected != actual)
+      fail(format(expected, actual));
+  }
+
+  /**
+   * Asserts that the {@code expected} value equals the {@code actual} value without boxing either.
+   *
+   * @throws AssertionError when the assertion fails
+   */
+  public void assertEquals(long expected, long actual) {
+    if (expected != actual)
+      fail(format(expected, actual));
+  }
+
+  /**
+   * Asserts that the {@code expected} value equals the {@code actual} value to within a positive {@code delta}, without
+   * boxing either.
+   *
+   * @throws AssertionError when the assertion fails
+   */
+  public void assertEquals(double expected, double actual, double delta) {
+    if (Double.compare(expected, actual) == 0)
+      return;
+    if (!(Math.abs(expected - actual) <= delta))
+      fail(format(expected, actual));
+  }
+
+  /**
+   * Asserts that the {@code expected} array equals the {@code actual} array, element by element.
+   *
+   * @throws AssertionError when the assertion fails
+   */
+  public void assertArrayEquals(boolean[] expected, boolean[] actual) {
+    if (!Arrays.equals(expected, actual))
+      fail(format(Arrays.toString(expected), Arrays.toString(actual)));
+  }
+
+  /**
+   * Asserts that the {@code expected} array equals the {@code actual} array, element by element.
+   *
+   * @throws AssertionError when the assertion fails
+   */
+  public void assertArrayEquals(byte[] expected, byte[] actual) {
+    if (!Arrays.equals(expected, actual))
+      fail(format(Arrays.toString(expected), Arrays.toString(actual)));
+  }
+
+  /**
+   * Asserts that the {@code expected} array equals the {@code actual} array, element by element.
+   *
+   * @throws AssertionError when the assertion fails
+   */
+  public void assertArrayEquals(char[] expected, char[] actual) {
+    if (!Arrays.equals(expected, actual))
+      fail(format(Arrays.toString(expected), Arrays.toString(actual)));
+  }
+
+  /**
+   * Asserts that the {@code expected} array equals the {@code actual} array, element by element.
+   *
+   * @throws AssertionError when the assertion fails
+   */
+  public void assertArrayEquals(int[] expected, int[] actual) {
+    if (!Arrays.equals(expected, actual))
+      fail(format(Arrays.toString(expected), Arrays.toString(actual)));
+  }
+
+  /**
+   * Asserts that the {@code expected} array equals the {@code actual} array, element by element.
+   *
+   * @throws AssertionError when the assertion fails
+   */
+  public void assertArrayEquals(long[] expected, long[] actual) {
+    if (!Arrays.equals(expected, actual))
+      fail(format(Arrays.toString(expected), Arrays.toString(actual)));
+  }
+
+  /**
+   * Asserts that the {@code expected} array equals the {@code actual} array, element by element.
+   *
+   * @throws AssertionError when the assertion fails
+   */
+  public void assertArrayEquals(double[] expected, double[] actual) {
+    if (!Arrays.equals(expected, actual))
+      fail(format(Arrays.toString(expected), Arrays.toString(actual)));
+  }
+
+  /**
+   * Asserts that the {@code expected} array deeply equals the {@code actual} array, element by element.
+   *
+   * @throws AssertionError when the assertion fails
+   */
+  public void assertArrayEquals(Object[] expected, Object[] actual) {
+    if (!Arrays.deepEquals(expected, actual))
+      fail(format(Arrays.deepToString(expected), Arrays.deepToString(actual)));
+  }
+
   /**
    * Asserts that the {@code condition} is false.
    *
@@ -62,6 +421,17 @@ public class Waiter {
       fail("expected false");
   }
 
+  /**
+   * Asserts that the {@code condition} is false, failing with the supplied {@code message}. The {@code message} is only
+   * evaluated if the assertion fails.
+   *
+   * @throws AssertionError when the assertion fails
+   */
+  public void assertFalse(boolean condition, Supplier<String> message) {
+    if (condition)
+      fail(message.get());
+  }
+
   /**
    * Asserts that the {@code object} is not null.
    *
@@ -72,6 +442,17 @@ public class Waiter {
       fail("expected not null");
   }
 
+  /**
+   * Asserts that the {@code object} is not null, failing with the supplied {@code message}. The {@code message} is only
+   * evaluated if the assertion fails.
+   *
+   * @throws AssertionError when the assertion fails
+   */
+  public void assertNotNull(Object object, Supplier<String> message) {
+    if (object == null)
+      fail(message.get());
+  }
+
   /**
    * Asserts that the {@code object} is null.
    *
@@ -82,6 +463,17 @@ public class Waiter {
       fail(format("null", object));
   }
 
+  /**
+   * Asserts that the {@code object} is null, failing with the supplied {@code message}. The {@code message} is only
+   * evaluated if the assertion fails.
+   *
+   * @throws AssertionError when the assertion fails
+   */
+  public void assertNull(Object object, Supplier<String> message) {
+    if (object != null)
+      fail(message, format("null", object));
+  }
+
   /**
    * Asserts that the {@code condition} is true.
    *
@@ -92,6 +484,17 @@ public class Waiter {
       fail("expected true");
   }
 
+  /**
+   * Asserts that the {@code condition} is true, failing with the supplied {@code message}. The {@code message} is only
+   * evaluated if the assertion fails.
+   *
+   * @throws AssertionError when the assertion fails
+   */
+  public void assertTrue(boolean condition, Supplier<String> message) {
+    if (!condition)
+      fail(message.get());
+  }
+
   /**
    * Asserts that {@code actual} satisfies the condition specified by {@code matcher}.
    *
@@ -105,6 +508,20 @@ public class Waiter {
     }
   }
 
+  /**
+   * Asserts that {@code actual} satisfies the condition specified by {@code matcher}, failing with the supplied
+   * {@code message}. The {@code message} is only evaluated if the assertion fails.
+   *
+   * @throws AssertionError when the assertion fails
+   */
+  public <T> void assertThat(T actual, org.hamcrest.Matcher<? super T> matcher, Supplier<String> message) {
+    try {
+      org.hamcrest.MatcherAssert.assertThat(actual, matcher);
+    } catch (AssertionError e) {
+      fail(message.get() + e.getMessage());
+    }
+  }
+
   /**
    * Waits until {@link #resume()} is called, or the test is failed.
    *
@@ -148,6 +565,7 @@ public class Waiter {
    * @param delay Delay to wait for in milliseconds
    * @param expectedResumes Number of times {@link #resume()} is expected to be called before the awaiting thread is
    *          resumed
+   * @throws IllegalArgumentException if {@code expectedResumes} is negative
    * @throws TimeoutException if the operation times out while waiting
    * @throws InterruptedException if the operations is interrupted while waiting
    * @throws AssertionError if any assertion fails while waiting
@@ -156,6 +574,22 @@ public class Waiter {
     await(delay, TimeUnit.MILLISECONDS, expectedResumes);
   }
 
+  /**
+   * Waits until the {@code delay} has elapsed, {@link #resume()} is called {@code expectedResumes} times, or the test
+   * is failed. Supports expected resume counts beyond {@link Integer#MAX_VALUE}.
+   *
+   * @param delay Delay to wait for in milliseconds
+   * @param expectedResumes Number of times {@link #resume()} is expected to be called before the awaiting thread is
+   *          resumed
+   * @throws IllegalArgumentException if {@code expectedResumes} is negative or greater than {@code Long.MAX_VALUE >> 1}
+   * @throws TimeoutException if the operation times out while waiting
+   * @throws InterruptedException if the operations is interrupted while waiting
+   * @throws AssertionError if any assertion fails while waiting
+   */
+  public void await(long delay, long expectedResumes) throws TimeoutException, InterruptedException {
+    await(delay, TimeUnit.MILLISECONDS, expectedResumes);
+  }
+
   /**
    * Waits until the {@code delay} has elapsed, {@link #resume()} is called {@code expectedResumes} times, or the test
    * is failed.
@@ -164,43 +598,439 @@ public class Waiter {
    * @param timeUnit TimeUnit to delay for
    * @param expectedResumes Number of times {@link #resume()} is expected to be called before the awaiting thread is
    *          resumed
+   * @throws IllegalArgumentException if {@code expectedResumes} is negative
    * @throws TimeoutException if the operation times out while waiting
    * @throws InterruptedException if the operations is interrupted while waiting
    * @throws AssertionError if any assertion fails while waiting
    */
   public void await(long delay, TimeUnit timeUnit, int expectedResumes) throws TimeoutException, InterruptedException {
-    try {
-      if (failure == null) {
-        synchronized (this) {
-          int remaining = remainingResumes.addAndGet(expectedResumes);
-          if (remaining > 0)
-            circuit.open();
-        }
+    await(delay, timeUnit, (long) expectedResumes);
+  }
 
-        if (delay == 0)
-          circuit.await();
-        else if (!circuit.await(delay, timeUnit)) {
-          final int actualResumes = expectedResumes - remainingResumes.get();
-          throw new TimeoutException(String.format(TIMEOUT_MESSAGE, expectedResumes, actualResumes));
-        }
+  /**
+   * Waits until the {@code delay} has elapsed, {@link #resume()} is called {@code expectedResumes} times, or the test
+   * is failed. Supports expected resume counts beyond {@link Integer#MAX_VALUE}, which are tracked with a 64-bit
+   * counter.
+   *
+   * @param delay Delay to wait for
+   * @param timeUnit TimeUnit to delay for
+   * @param expectedResumes Number of times {@link #resume()} is expected to be called before the awaiting thread is
+   *          resumed
+   * @throws IllegalArgumentException if {@code expectedResumes} is negative or greater than {@code Long.MAX_VALUE >> 1}
+   * @throws TimeoutException if the operation times out while waiting
+   * @throws InterruptedException if the operations is interrupted while waiting
+   * @throws AssertionError if any assertion fails while waiting
+   */
+  public void await(long delay, TimeUnit timeUnit, long expectedResumes) throws TimeoutException, InterruptedException {
+    checkExpectedResumes(expectedResumes);
+    clearStop();
+    if (generations != null) {
+      awaitGeneration(delay, timeUnit, expectedResumes);
+      return;
+    }
+
+    // Fast path for when the expected resumes have already occurred
+    if (!failures.isFailed() && counter.tryConsume(expectedResumes)) {
+      mergeLatencies();
+      Throwable f = takeFailure();
+      if (f != null)
+        sneakyThrow(f);
+      return;
+    }
+
+    try {
+      if (!failures.isFailed()) {
+        circuit.open();
+        if (counter.arm(expectedResumes) && !failures.isFailed())
+          awaitTimeout(delay, timeUnit, expectedResumes);
       }
     } finally {
-      remainingResumes.set(0);
+      counter.reset();
       circuit.open();
-      if (failure != null) {
-        Throwable f = failure;
-        failure = null;
+      mergeLatencies();
+      if (stopped)
+        stopWorkers();
+      Throwable f = takeFailure();
+      if (f != null)
         sneakyThrow(f);
-      }
     }
   }
 
+  /**
+   * Returns a stage that completes when {@link #resume()} is called, or completes exceptionally when the test is
+   * failed. Unlike {@link #await()}, the calling thread is not blocked.
+   *
+   * @throws IllegalStateException if an asynchronous await is already pending
+   * @see #awaitAsync(long, TimeUnit, long)
+   */
+  public CompletionStage<Void> awaitAsync() {
+    return awaitAsync(0, TimeUnit.MILLISECONDS, 1);
+  }
+
+  /**
+   * Returns a stage that completes when {@link #resume()} is called, or completes exceptionally when the {@code delay}
+   * elapses or the test is failed. Unlike {@link #await(long, TimeUnit)}, the calling thread is not blocked.
+   *
+   * @param delay Delay to wait for
+   * @param timeUnit TimeUnit to delay for
+   * @throws IllegalStateException if an asynchronous await is already pending
+   * @see #awaitAsync(long, TimeUnit, long)
+   */
+  public CompletionStage<Void> awaitAsync(long delay, TimeUnit timeUnit) {
+    return awaitAsync(delay, timeUnit, 1);
+  }
+
+  /**
+   * Returns a stage that completes when {@link #resume()} is called {@code expectedResumes} times, or completes
+   * exceptionally when the {@code delay} elapses or the test is failed. Unlike
+   * {@link #await(long, TimeUnit, long)}, the calling thread is not blocked. The stage is completed by the thread
+   * that makes the final {@link #resume()} call, fails the test, or times out, and dependent actions run in that
+   * thread unless an async variant is used.
+   * <p>
+   * The stage completes exceptionally with a {@link TimeoutException} if the {@code delay} elapses before the expected
+   * resumes occur, or with the failure if the test is failed. Cancelling the stage's
+   * {@link CompletionStage#toCompletableFuture() future} abandons the await.
+   *
+   * @param delay Delay to wait for, or 0 to wait indefinitely
+   * @param timeUnit TimeUnit to delay for
+   * @param expectedResumes Number of times {@link #resume()} is expected to be called before the stage completes
+   * @throws IllegalArgumentException if {@code expectedResumes} is negative or greater than {@code Long.MAX_VALUE >> 1}
+   * @throws IllegalStateException if an asynchronous await is already pending
+   */
+  public CompletionStage<Void> awaitAsync(long delay, TimeUnit timeUnit, final long expectedResumes) {
+    checkExpectedResumes(expectedResumes);
+    clearStop();
+    if (generations != null)
+      return generationAwaiter(delay, timeUnit, expectedResumes);
+    if (!failures.isFailed() && pending.get() == null && counter.tryConsume(expectedResumes)) {
+      mergeLatencies();
+      CompletableFuture<Void> future = new CompletableFuture<Void>();
+      Throwable f = takeFailure();
+      if (f != null)
+        future.completeExceptionally(f);
+      else
+        future.complete(null);
+      return future;
+    }
+
+    final CompletableFuture<Void> future = new CompletableFuture<Void>();
+    if (!pending.compareAndSet(null, future))
+      throw new IllegalStateException("An asynchronous await is already pending");
+    future.whenComplete((result, error) -> {
+      if (future.isCancelled() && pending.compareAndSet(future, null))
+        counter.reset();
+    });
+
+    if (failures.isFailed() || !counter.arm(expectedResumes) || failures.isFailed()) {
+      if (pending.compareAndSet(future, null))
+        complete(future, null);
+    } else if (pending.get() != future) {
+      // A failure completed the future before it was armed, so nothing else would reset the armed count
+      counter.reset();
+    } else if (delay != 0) {
+      final Timeout timeout = TIMER.schedule(() -> {
+        if (pending.compareAndSet(future, null)) {
+          TimeoutException e = timeoutException(expectedResumes);
+          counter.reset();
+
+          // Complete off the timer thread so that callbacks on the future cannot delay other timeouts
+          WaiterExecutor.POOL.execute(() -> settle(future, e));
+        }
+      }, delay, timeUnit);
+      future.whenComplete((result, error) -> timeout.cancel());
+    }
+
+    return future;
+  }
+
+  /**
+   * Waits until {@link #resume()} is called on each of the {@code waiters}, the {@code delay} elapses, or any of the
+   * waiters is failed. Rather than awaiting each waiter in turn, the calling thread blocks once until all have been
+   * resumed, and fails as soon as any waiter is failed.
+   *
+   * @param waiters Waiters to await, which must not have asynchronous awaits pending
+   * @param delay Delay to wait for, or 0 to wait indefinitely
+   * @param timeUnit TimeUnit to delay for
+   * @throws TimeoutException if the operation times out while waiting, with a message describing each waiter's progress
+   * @throws InterruptedException if the operations is interrupted while waiting
+   * @throws AssertionError if any assertion fails while waiting
+   */
+  public static void awaitAll(Collection<Waiter> waiters, long delay, TimeUnit timeUnit)
+      throws TimeoutException, InterruptedException {
+    awaitResumes(waiters, waiters.size(), delay, timeUnit);
+  }
+
+  /**
+   * Waits until {@link #resume()} is called on any of the {@code waiters}, the {@code delay} elapses, or any of the
+   * waiters is failed. Awaits of the waiters that were not resumed are abandoned.
+   *
+   * @param waiters Waiters to await, which must not have asynchronous awaits pending
+   * @param delay Delay to wait for, or 0 to wait indefinitely
+   * @param timeUnit TimeUnit to delay for
+   * @throws IllegalArgumentException if {@code waiters} is empty
+   * @throws TimeoutException if the operation times out while waiting, with a message describing each waiter's progress
+   * @throws InterruptedException if the operations is interrupted while waiting
+   * @throws AssertionError if any assertion fails while waiting
+   */
+  public static void awaitAny(Collection<Waiter> waiters, long delay, TimeUnit timeUnit)
+      throws TimeoutException, InterruptedException {
+    if (waiters.isEmpty())
+      throw new IllegalArgumentException("waiters must not be empty");
+    awaitResumes(waiters, 1, delay, timeUnit);
+  }
+
+  /**
+   * Registers the {@code thread} as a worker for the test, to be interrupted and joined when an {@code await} fails or
+   * times out, so that workers from a failed test stop consuming CPU before the next test begins. Workers are forgotten
+   * once they terminate.
+   *
+   * @return the {@code thread}
+   * @see Builder#workerJoinTimeout(long, TimeUnit)
+   */
+  public Thread register(Thread thread) {
+    workers.add(thread);
+    if (registrations.incrementAndGet() % 64 == 0)
+      workers.removeIf(worker -> worker.getState() == Thread.State.TERMINATED);
+    return thread;
+  }
+
+  /**
+   * Returns a ThreadFactory that creates daemon threads which are {@link #register(Thread) registered} as workers with
+   * the Waiter.
+   */
+  public ThreadFactory threadFactory() {
+    return runnable -> {
+      Thread thread = new Thread(runnable, "ConcurrentUnit-Worker-" + WORKER_COUNT.incrementAndGet());
+      thread.setDaemon(true);
+      return register(thread);
+    };
+  }
+
+  /**
+   * Returns a new executor whose tasks run on a pool of threads shared by all Waiters. Any exception a task throws
+   * fails this Waiter, and task completions are counted by the executor rather than as resumes.
+   *
+   * @see WaiterExecutor#awaitQuiescence(long, TimeUnit)
+   */
+  public WaiterExecutor executor() {
+    return new WaiterExecutor(this);
+  }
+
+  /**
+   * Runs the {@code body} for {@code iterations} on each of {@code threads} threads, waiting until they complete or the
+   * test is failed.
+   *
+   * @see #runConcurrently(int, int, long, TimeUnit, IntConsumer)
+   */
+  public RunResult runConcurrently(int threads, int iterations, IntConsumer body)
+      throws TimeoutException, InterruptedException {
+    return runConcurrently(threads, iterations, 0, TimeUnit.MILLISECONDS, body);
+  }
+
+  /**
+   * Runs the {@code body} for {@code iterations} on each of {@code threads} threads, passing it the iteration number,
+   * and waits until they complete, the {@code delay} elapses, or the test is failed. The threads are started and held
+   * at a spinning start gate, then released together so that they overlap as much as possible. Each thread stops
+   * early once the Waiter {@link #shouldStop() should stop}, and any exception thrown by the {@code body} fails the
+   * test. The threads are pooled as with {@link #executor()}, so their completion is not counted as resumes.
+   *
+   * @param delay Delay to wait for, or 0 to wait indefinitely
+   * @param timeUnit TimeUnit to delay for
+   * @return the operations each thread completed, their throughput, and the wall time of the run
+   * @throws IllegalArgumentException if {@code threads} is less than 1 or {@code iterations} is negative
+   * @throws TimeoutException if the operation times out while waiting
+   * @throws InterruptedException if the operations is interrupted while waiting
+   * @throws AssertionError if any assertion fails while waiting
+   */
+  public RunResult runConcurrently(int threads, final int iterations, long delay, TimeUnit timeUnit,
+      final IntConsumer body) throws TimeoutException, InterruptedException {
+    if (threads < 1)
+      throw new IllegalArgumentException("threads must be >= 1");
+    if (iterations < 0)
+      throw new IllegalArgumentException("iterations must be >= 0");
+
+    final AtomicInteger ready = new AtomicInteger();
+    final AtomicBoolean released = new AtomicBoolean();
+    final long[] operations = new long[threads];
+    final long[] nanos = new long[threads];
+    WaiterExecutor executor = executor();
+    for (int i = 0; i < threads; i++) {
+      final int thread = i;
+      executor.execute(() -> {
+        ready.incrementAndGet();
+        try {
+          SpinWait.spinUntil(released::get);
+        } catch (InterruptedException e) {
+          return;
+        }
+
+        long start = System.nanoTime();
+        int iteration = 0;
+        try {
+          for (; iteration < iterations && !stopped; iteration++)
+            body.accept(iteration);
+        } finally {
+          operations[thread] = iteration;
+          nanos[thread] = System.nanoTime() - start;
+        }
+      });
+    }
+
+    try {
+      SpinWait.spinUntil(() -> ready.get() == threads);
+    } catch (InterruptedException e) {
+      executor.shutdownNow();
+      released.set(true);
+      throw e;
+    }
+
+    // Clear a stop signal left by a previous failed or timed out await so that it does not cut this run short
+    clearStop();
+    long start = System.nanoTime();
+    released.set(true);
+    executor.awaitQuiescence(delay, timeUnit);
+    return new RunResult(operations, nanos, System.nanoTime() - start);
+  }
+
+  /**
+   * Runs the {@code body} for {@code iterations} per thread at 1, 2, 4 and so on threads, up to and including
+   * {@code maxThreads}, recording the throughput at each level and fitting the Universal Scalability Law to it. A run
+   * at one thread precedes the sweep to warm up the {@code body}. Each level is run as with
+   * {@link #runConcurrently(int, int, IntConsumer)}, so the sweep stops with the first failure.
+   *
+   * @return the throughput at each level, along with the fitted contention and coherency coefficients
+   * @throws IllegalArgumentException if {@code maxThreads} or {@code iterations} is less than 1
+   * @throws TimeoutException if the operation times out while waiting
+   * @throws InterruptedException if the operations is interrupted while waiting
+   * @throws AssertionError if any assertion fails while waiting
+   */
+  public SweepResult sweep(int maxThreads, int iterations, IntConsumer body)
+      throws TimeoutException, InterruptedException {
+    if (maxThreads < 1)
+      throw new IllegalArgumentException("maxThreads must be >= 1");
+    if (iterations < 1)
+      throw new IllegalArgumentException("iterations must be >= 1");
+    int levels = 1;
+    while (levels < 31 && 1 << levels <= maxThreads)
+      levels++;
+    int[] threadCounts = new int[Integer.bitCount(maxThreads) == 1 ? levels : levels + 1];
+    for (int i = 0; i < levels; i++)
+      threadCounts[i] = 1 << i;
+    threadCounts[threadCounts.length - 1] = maxThreads;
+
+    runConcurrently(1, iterations, body);
+    double[] throughputs = new double[threadCounts.length];
+    for (int i = 0; i < threadCounts.length; i++)
+      throughputs[i] = runConcurrently(threadCounts[i], iterations, body).opsPerSecond();
+    return new SweepResult(threadCounts, throughputs);
+  }
+
+  /**
+   * Returns whether a failure has been recorded that has yet to be thrown by an await. This is a single volatile read.
+   */
+  public boolean isFailed() {
+    return failures.isFailed();
+  }
+
+  /**
+   * Returns whether worker threads should stop, because the Waiter has been failed or an await has timed out since the
+   * last await began. This is a single volatile read, so it may be checked on every iteration of a worker loop to abort
+   * a failing stress test promptly.
+   */
+  public boolean shouldStop() {
+    return stopped;
+  }
+
   /**
    * Resumes the waiter when the expected number of {@link #resume()} calls have occurred.
    */
-  public synchronized void resume() {
-    if (remainingResumes.decrementAndGet() <= 0)
-      circuit.close();
+  public void resume() {
+    if (generations != null)
+      generations.resume(1);
+    else if (counter.resume(1))
+      wake();
+  }
+
+  /**
+   * Returns a token for an operation that is beginning, to be passed to {@link #resumeSince(long)} when the operation
+   * completes.
+   */
+  public long begin() {
+    return System.nanoTime();
+  }
+
+  /**
+   * Resumes the waiter as with {@link #resume()}, recording the latency since the {@link #begin()} call that returned
+   * the {@code token}. Latencies are recorded into lock-free histograms that are striped by thread, and the histograms
+   * are merged when an await completes.
+   *
+   * @see #latencies()
+   */
+  public void resumeSince(long token) {
+    recorder.record(System.nanoTime() - token);
+    if (!latenciesRecorded)
+      latenciesRecorded = true;
+    resume();
+  }
+
+  /**
+   * Asserts that the {@code percentile} of the latencies recorded via {@link #resumeSince(long)} does not exceed
+   * {@code max}. The assertion is evaluated each time an await completes, against the latencies recorded since the
+   * previous await, and fails the await with an {@code AssertionError} if violated. Assertions remain registered for
+   * the life of the Waiter.
+   *
+   * @param percentile the percentile to assert, such as 99.9
+   * @throws IllegalArgumentException if {@code percentile} is not between 0 and 100
+   */
+  public void assertPercentile(double percentile, long max, TimeUnit timeUnit) {
+    latencyAssertions.add(new LatencyAssertion(percentile, max, timeUnit));
+  }
+
+  /**
+   * Asserts that none of the latencies recorded via {@link #resumeSince(long)} exceed {@code max}, evaluated each time an
+   * await completes.
+   *
+   * @see #assertPercentile(double, long, TimeUnit)
+   */
+  public void assertMaxLatency(long max, TimeUnit timeUnit) {
+    latencyAssertions.add(new LatencyAssertion(100, max, timeUnit));
+  }
+
+  /**
+   * Returns the latencies recorded via {@link #resumeSince(long)} between the last two awaits, such as those recorded
+   * while the most recent await was waiting.
+   */
+  public Latencies latencies() {
+    return latencies;
+  }
+
+  /**
+   * Records {@code count} resumes at once, as if {@link #resume()} were called {@code count} times, waking the
+   * awaiting thread at most once when the expected number of resumes have occurred.
+   *
+   * @throws IllegalArgumentException if {@code count} is negative
+   */
+  public void resume(int count) {
+    if (count < 0)
+      throw new IllegalArgumentException("count must be >= 0");
+    if (generations != null)
+      generations.resume(count);
+    else if (counter.resume(count))
+      wake();
+  }
+
+  /**
+   * Begins a new generation for a {@link Builder#generational() generational} Waiter, from which subsequent awaits
+   * count resumes, and clears any recorded failure. Threads that are already awaiting are unaffected.
+   *
+   * @throws IllegalStateException if the Waiter is not generational
+   */
+  public void nextGeneration() {
+    if (generations == null)
+      throw new IllegalStateException("Waiter is not generational");
+    generations.nextGeneration();
+    failures.clear();
+    stopped = false;
   }
 
   /**
@@ -209,7 +1039,7 @@ public class Waiter {
    * @throws AssertionError
    */
   public void fail() {
-    fail(new AssertionError());
+    fail(failures.newFailure(null, null));
   }
 
   /**
@@ -218,7 +1048,7 @@ public class Waiter {
    * @throws AssertionError
    */
   public void fail(String reason) {
-    fail(new AssertionError(reason));
+    fail(failures.newFailure(reason, null));
   }
 
   /**
@@ -228,16 +1058,12 @@ public class Waiter {
    * @throws AssertionError wrapping the {@code reason}
    */
   public void fail(Throwable reason) {
-    AssertionError ae = null;
-    if (reason instanceof AssertionError)
-      ae = (AssertionError) reason;
-    else {
-      ae = new AssertionError();
-      ae.initCause(reason);
-    }
+    AssertionError ae = reason instanceof AssertionError ? (AssertionError) reason : failures.newFailure(null, reason);
 
-    failure = ae;
-    circuit.close();
+    failures.record(ae);
+    stopped = true;
+    wake();
+    WaiterExecutor.thrown(ae);
     throw ae;
   }
 
@@ -248,11 +1074,350 @@ public class Waiter {
    * @throws Throwable the {@code failure}
    */
   public void rethrow(Throwable failure) {
-    this.failure = failure;
-    circuit.close();
+    failures.record(failure);
+    stopped = true;
+    wake();
+    WaiterExecutor.thrown(failure);
     sneakyThrow(failure);
   }
 
+  /**
+   * Waits for the circuit to be closed by the final resume, a failure, or, if the {@code delay} is not 0, a timeout
+   * that is scheduled on the shared {@link #TIMER} rather than parking with a deadline. Since a timeout or resume from
+   * a previous await may close the circuit late, wake-ups that are not explained by this await's state are ignored.
+   */
+  private void awaitTimeout(long delay, TimeUnit timeUnit, long expectedResumes)
+      throws TimeoutException, InterruptedException {
+    Timeout timeout = delay == 0 ? null : TIMER.schedule(circuit::close, delay, timeUnit);
+    try {
+      for (;;) {
+        circuit.await();
+        if (failures.isFailed() || !counter.isWaiting())
+          return;
+        if (timeout != null && timeout.isExpired())
+          throw timeoutException(expectedResumes);
+
+        // Spurious wake-up, so re-open then re-check before waiting again
+        circuit.open();
+        if (failures.isFailed() || !counter.isWaiting() || (timeout != null && timeout.isExpired()))
+          circuit.close();
+      }
+    } finally {
+      if (timeout != null)
+        timeout.cancel();
+    }
+  }
+
+  /**
+   * Waits until the {@code condition} holds, the {@code delay} elapses, or the test is failed, without expecting or
+   * consuming resumes. The calling thread parks between checks, so whatever makes the {@code condition} true must
+   * unpark it. Used by {@link WaiterExecutor} to await quiescence from its own completion count.
+   *
+   * @param delay Delay to wait for, or 0 to wait indefinitely
+   * @param timeoutMessage Describes the unmet condition if the {@code delay} elapses
+   */
+  void awaitCondition(BooleanSupplier condition, long delay, TimeUnit timeUnit, Supplier<String> timeoutMessage)
+      throws TimeoutException, InterruptedException {
+    clearStop();
+    Thread current = Thread.currentThread();
+    conditionAwaiters.add(current);
+    long deadline = System.nanoTime() + timeUnit.toNanos(delay);
+    try {
+      while (!failures.isFailed() && !condition.getAsBoolean()) {
+        if (delay == 0)
+          LockSupport.park(this);
+        else {
+          long remaining = deadline - System.nanoTime();
+          if (remaining <= 0) {
+            stopped = true;
+            throw new TimeoutException(timeoutMessage.get());
+          }
+          LockSupport.parkNanos(this, remaining);
+        }
+        if (Thread.interrupted())
+          throw new InterruptedException();
+      }
+    } finally {
+      conditionAwaiters.remove(current);
+      mergeLatencies();
+      if (stopped)
+        stopWorkers();
+    }
+
+    Throwable f = takeFailure();
+    if (f != null)
+      sneakyThrow(f);
+  }
+
+  /**
+   * Waits for the expected resumes in the current generation, throwing any recorded failure without clearing it.
+   */
+  private void awaitGeneration(long delay, TimeUnit timeUnit, long expectedResumes)
+      throws TimeoutException, InterruptedException {
+    CompletableFuture<Void> awaiter = generationAwaiter(delay, timeUnit, expectedResumes);
+    try {
+      awaiter.get();
+    } catch (ExecutionException e) {
+      sneakyThrow(e.getCause());
+    } finally {
+      // Abandon the await if interrupted
+      awaiter.cancel(false);
+      mergeLatencies();
+      if (stopped)
+        stopWorkers();
+    }
+
+    // Report latency assertion failures
+    Throwable f = failures.get();
+    if (f != null)
+      sneakyThrow(f);
+  }
+
+  /**
+   * Returns a future that completes when the expected resumes in the current generation occur, or completes
+   * exceptionally when the {@code delay} elapses or the test is failed.
+   */
+  private CompletableFuture<Void> generationAwaiter(long delay, TimeUnit timeUnit, final long expectedResumes) {
+    Throwable f = failures.get();
+    if (f != null) {
+      CompletableFuture<Void> failed = new CompletableFuture<Void>();
+      failed.completeExceptionally(f);
+      return failed;
+    }
+
+    final Generations.Awaiter awaiter = generations.await(expectedResumes);
+    final Timeout timeout = awaiter.isDone() || delay == 0 ? null : TIMER.schedule(() -> {
+      stopped = true;
+      TimeoutException e = new TimeoutException(
+          String.format(TIMEOUT_MESSAGE, expectedResumes, awaiter.actualResumes()));
+      WaiterExecutor.POOL.execute(() -> awaiter.completeExceptionally(e));
+    }, delay, timeUnit);
+    awaiter.whenComplete((result, error) -> {
+      if (error != null)
+        generations.remove(awaiter);
+      if (timeout != null)
+        timeout.cancel();
+    });
+
+    // Re-check since a failure may have been reported before the awaiter was registered
+    f = failures.get();
+    if (f != null)
+      awaiter.completeExceptionally(f);
+    return awaiter;
+  }
+
+  /**
+   * Waits until {@code required} of the {@code waiters} are resumed by blocking on a single future that each waiter's
+   * asynchronous await completes, then abandons any awaits that are still pending.
+   */
+  private static void awaitResumes(Collection<Waiter> waiters, final int required, long delay, TimeUnit timeUnit)
+      throws TimeoutException, InterruptedException {
+    final CompletableFuture<Void> signal = new CompletableFuture<Void>();
+    final AtomicInteger remaining = new AtomicInteger(required);
+    final List<Waiter> awaited = new ArrayList<Waiter>(waiters);
+    final List<CompletableFuture<Void>> futures = new ArrayList<CompletableFuture<Void>>(awaited.size());
+    Timeout timeout = null;
+
+    try {
+      if (required == 0)
+        return;
+      for (Waiter waiter : awaited) {
+        CompletableFuture<Void> future = waiter.awaitAsync(0, timeUnit, 1).toCompletableFuture();
+        futures.add(future);
+        future.whenComplete((result, error) -> {
+          if (error != null)
+            signal.completeExceptionally(error);
+          else if (remaining.decrementAndGet() == 0)
+            signal.complete(null);
+        });
+      }
+
+      if (delay != 0 && !signal.isDone())
+        timeout = TIMER.schedule(() -> {
+          for (Waiter waiter : awaited)
+            waiter.stopped = true;
+          signal.completeExceptionally(new TimeoutException(progress(awaited, futures, required)));
+        }, delay, timeUnit);
+
+      signal.get();
+    } catch (ExecutionException e) {
+      sneakyThrow(e.getCause());
+    } finally {
+      if (timeout != null)
+        timeout.cancel();
+      for (CompletableFuture<Void> future : futures)
+        future.cancel(false);
+    }
+  }
+
+  /**
+   * Describes the progress of each of the {@code waiters} towards their single expected resume.
+   */
+  private static String progress(List<Waiter> waiters, List<CompletableFuture<Void>> futures, int required) {
+    StringBuilder sb = new StringBuilder();
+    sb.append("Test timed out while waiting for ").append(required).append(" of ").append(waiters.size())
+        .append(" waiters to be resumed");
+    for (int i = 0; i < futures.size(); i++) {
+      sb.append(", waiter ").append(i).append(": ");
+      if (futures.get(i).isDone())
+        sb.append("resumed");
+      else
+        sb.append("actualResumes: ").append(waiters.get(i).actualResumes(1)).append(" of 1");
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Wakes the blocked awaiter, if any, and completes the pending asynchronous await, if any.
+   */
+  private void wake() {
+    circuit.close();
+    if (generations != null) {
+      Throwable f = failures.get();
+      if (f != null)
+        generations.fail(f);
+    }
+    CompletableFuture<Void> future = pending.getAndSet(null);
+    if (future != null)
+      complete(future, null);
+    for (Thread thread : conditionAwaiters)
+      LockSupport.unpark(thread);
+  }
+
+  /**
+   * Resets the waiter and completes the {@code future} with the recorded failure, else the {@code timeout} if not
+   * null, else normally.
+   */
+  private void complete(CompletableFuture<Void> future, TimeoutException timeout) {
+    counter.reset();
+    settle(future, timeout);
+  }
+
+  /**
+   * Completes the {@code future} with the recorded failure, else the {@code timeout} if not null, else normally.
+   */
+  private void settle(CompletableFuture<Void> future, TimeoutException timeout) {
+    mergeLatencies();
+    Throwable f = takeFailure();
+    if (f != null) {
+      future.completeExceptionally(f);
+    } else if (timeout != null)
+      future.completeExceptionally(timeout);
+    else
+      future.complete(null);
+  }
+
+  /**
+   * Returns and clears the failure to report, else null.
+   */
+  private Throwable takeFailure() {
+    Throwable f = failures.get();
+    if (f != null)
+      failures.clear();
+    return f;
+  }
+
+  /**
+   * Fails the current test for the {@code reason}, prefixed with the supplied {@code message}.
+   */
+  private void fail(Supplier<String> message, String reason) {
+    fail(message.get() + " " + reason);
+  }
+
+  /**
+   * Interrupts the registered workers, other than the current thread, then joins them until the worker join timeout
+   * elapses, forgetting those that terminate.
+   */
+  private void stopWorkers() {
+    if (workers.isEmpty())
+      return;
+    Thread current = Thread.currentThread();
+    for (Thread worker : workers)
+      if (worker != current)
+        worker.interrupt();
+
+    long deadline = System.nanoTime() + workerJoinTimeoutNanos;
+    try {
+      for (Iterator<Thread> it = workers.iterator(); it.hasNext();) {
+        Thread worker = it.next();
+        if (worker == current)
+          continue;
+        long remaining = deadline - System.nanoTime();
+        if (remaining > 0)
+          TimeUnit.NANOSECONDS.timedJoin(worker, remaining);
+        if (!worker.isAlive())
+          it.remove();
+      }
+    } catch (InterruptedException e) {
+      current.interrupt();
+    }
+  }
+
+  /**
+   * Merges the latencies recorded by each thread since the last merge, recording a failure for each latency assertion
+   * that they violate.
+   */
+  private void mergeLatencies() {
+    if (!latenciesRecorded)
+      return;
+    long count = recorder.count();
+    if (count == latencyCount) {
+      if (latencies != Latencies.EMPTY)
+        latencies = Latencies.EMPTY;
+      return;
+    }
+
+    latencyCount = count;
+    long[] totals = new long[LatencyRecorder.BUCKETS];
+    long maxNanos = recorder.addTo(totals);
+
+    long[] interval = totals.clone();
+    long[] baseline = latencyBaseline;
+    if (baseline != null)
+      for (int i = 0; i < interval.length; i++)
+        interval[i] -= baseline[i];
+    latencyBaseline = totals;
+    Latencies latencies = new Latencies(interval, maxNanos);
+    this.latencies = latencies;
+
+    if (latencies.count() > 0) {
+      for (LatencyAssertion assertion : latencyAssertions) {
+        String violation = assertion.check(latencies);
+        if (violation != null) {
+          failures.record(failures.newFailure(violation, null));
+          stopped = true;
+        }
+      }
+    }
+  }
+
+  /**
+   * Validates the {@code expectedResumes}, which must fit in a resume counter's state alongside its waiting bit.
+   */
+  private static void checkExpectedResumes(long expectedResumes) {
+    if (expectedResumes < 0)
+      throw new IllegalArgumentException("expectedResumes must be >= 0");
+    if (expectedResumes > MAX_EXPECTED_RESUMES)
+      throw new IllegalArgumentException("expectedResumes must be <= " + MAX_EXPECTED_RESUMES);
+  }
+
+  /**
+   * Clears the stop signal at the start of an await unless a failure has yet to be thrown.
+   */
+  private void clearStop() {
+    if (stopped && !failures.isFailed())
+      stopped = false;
+  }
+
+  private TimeoutException timeoutException(long expectedResumes) {
+    stopped = true;
+    return new TimeoutException(String.format(TIMEOUT_MESSAGE, expectedResumes, actualResumes(expectedResumes)));
+  }
+
+  private long actualResumes(long expectedResumes) {
+    return generations != null ? generations.resumes() : expectedResumes - counter.remaining();
+  }
+
   private static void sneakyThrow(Throwable t) {
     Waiter.<Error>sneakyThrow2(t);
   }
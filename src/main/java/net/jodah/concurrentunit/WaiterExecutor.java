@@ -0,0 +1,238 @@
+/*
+ * Copyright 2010-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package net.jodah.concurrentunit;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An ExecutorService that runs tasks for a {@link Waiter} on a pool of daemon threads that is shared by all Waiters, so
+ * that test suites do not pay to create threads for each test. Any exception a task throws
+ * {@link Waiter#fail(Throwable) fails} the Waiter, and the executor counts completed tasks itself, so tests can submit
+ * work then {@link #awaitQuiescence(long, TimeUnit) await quiescence} without explicit resume calls. Completed tasks
+ * do not {@link Waiter#resume() resume} the Waiter, whose resumes are left to the test. Shutting down a WaiterExecutor
+ * rejects further tasks without affecting the shared pool.
+ *
+ * @author Jonathan Halterman
+ * @see Waiter#executor()
+ */
+public class WaiterExecutor extends AbstractExecutorService {
+  private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+  /** Also completes asynchronous awaits that time out, so that their callbacks do not run on the timer thread */
+  static final ExecutorService POOL = Executors.newCachedThreadPool(runnable -> {
+    Thread thread = new Thread(runnable, "ConcurrentUnit-Executor-" + THREAD_COUNT.incrementAndGet());
+    thread.setDaemon(true);
+    return thread;
+  });
+  /** The task running on the current thread, if any */
+  private static final ThreadLocal<Task> CURRENT_TASK = new ThreadLocal<Task>();
+
+  private final Waiter waiter;
+  private final AtomicLong submitted = new AtomicLong();
+  private final AtomicLong completed = new AtomicLong();
+  /** The thread awaiting quiescence, if any, which is unparked once {@link #quiescenceTarget} tasks complete */
+  private volatile Thread quiescenceAwaiter;
+  private volatile long quiescenceTarget;
+  private final AtomicInteger active = new AtomicInteger();
+  private final Set<Thread> running = Collections.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+  private final CompletableFuture<Void> terminated = new CompletableFuture<Void>();
+  private volatile boolean shutdown;
+  private volatile boolean stopped;
+
+  /**
+   * Wraps a submitted task, reporting its failure and resuming the Waiter when it completes.
+   */
+  private final class Task implements Runnable {
+    private final Runnable command;
+    /** The failure that the Waiter threw while running the command, which has already been recorded */
+    private Throwable thrown;
+
+    Task(Runnable command) {
+      this.command = command;
+    }
+
+    @Override
+    public void run() {
+      Thread thread = Thread.currentThread();
+      CURRENT_TASK.set(this);
+      running.add(thread);
+      try {
+        if (!stopped)
+          command.run();
+      } catch (Throwable t) {
+        report(t);
+      } finally {
+        running.remove(thread);
+        CURRENT_TASK.remove();
+        // Keep an interrupt from leaking into the next task run by the pooled thread
+        Thread.interrupted();
+        if (completed.incrementAndGet() >= quiescenceTarget) {
+          Thread awaiter = quiescenceAwaiter;
+          if (awaiter != null)
+            LockSupport.unpark(awaiter);
+        }
+        if (active.decrementAndGet() == 0 && shutdown)
+          terminated.complete(null);
+      }
+    }
+
+    void report(Throwable failure) {
+      if (failure == thrown)
+        return;
+      try {
+        waiter.fail(failure);
+      } catch (AssertionError ignore) {
+      }
+    }
+  }
+
+  WaiterExecutor(Waiter waiter) {
+    this.waiter = waiter;
+  }
+
+  /**
+   * Notes that the Waiter threw the {@code failure} while running a task on the current thread, if any, so that it is
+   * not recorded again when it propagates out of the task.
+   */
+  static void thrown(Throwable failure) {
+    Task task = CURRENT_TASK.get();
+    if (task != null)
+      task.thrown = failure;
+  }
+
+  /**
+   * Waits until every task submitted before this call has completed, the {@code delay} has elapsed, or a task fails.
+   * Completions are counted by the executor, so tasks that complete while a previous call times out are not awaited
+   * again. Intended to be called from a single awaiting thread.
+   *
+   * @param delay Delay to wait for, or 0 to wait indefinitely
+   * @param timeUnit TimeUnit to delay for
+   * @throws TimeoutException if the operation times out while waiting
+   * @throws InterruptedException if the operations is interrupted while waiting
+   * @throws AssertionError if any task fails or assertion fails while waiting
+   */
+  public void awaitQuiescence(long delay, TimeUnit timeUnit) throws TimeoutException, InterruptedException {
+    final long target = submitted.get();
+    quiescenceTarget = target;
+    quiescenceAwaiter = Thread.currentThread();
+    try {
+      waiter.awaitCondition(() -> completed.get() >= target, delay, timeUnit,
+          () -> "Test timed out while waiting for tasks to complete, expectedTasks: " + target + ", completedTasks: "
+              + completed.get());
+    } finally {
+      quiescenceAwaiter = null;
+    }
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    active.incrementAndGet();
+    if (shutdown) {
+      if (active.decrementAndGet() == 0)
+        terminated.complete(null);
+      throw new RejectedExecutionException("WaiterExecutor has been shut down");
+    }
+
+    submitted.incrementAndGet();
+    try {
+      POOL.execute(new Task(command));
+    } catch (RejectedExecutionException e) {
+      submitted.decrementAndGet();
+      active.decrementAndGet();
+      throw e;
+    }
+  }
+
+  @Override
+  public void shutdown() {
+    shutdown = true;
+    if (active.get() == 0)
+      terminated.complete(null);
+  }
+
+  /**
+   * Shuts down the executor, interrupting running tasks. Tasks that have yet to start are skipped rather than returned
+   * since they are queued in the shared pool.
+   */
+  @Override
+  public List<Runnable> shutdownNow() {
+    stopped = true;
+    shutdown();
+    for (Thread thread : running)
+      thread.interrupt();
+    return Collections.emptyList();
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return shutdown;
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return terminated.isDone();
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    try {
+      terminated.get(timeout, unit);
+      return true;
+    } catch (TimeoutException e) {
+      return false;
+    } catch (ExecutionException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Override
+  protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value) {
+    return newTaskFor(Executors.callable(runnable, value));
+  }
+
+  /**
+   * Returns a FutureTask that reports the {@code callable}'s failure to the Waiter, since FutureTask would otherwise
+   * capture it.
+   */
+  @Override
+  protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
+    return new FutureTask<T>(callable) {
+      @Override
+      protected void setException(Throwable t) {
+        Task task = CURRENT_TASK.get();
+        if (task != null)
+          task.report(t);
+        super.setException(t);
+      }
+    };
+  }
+}
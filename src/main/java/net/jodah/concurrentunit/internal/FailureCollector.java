@@ -0,0 +1,107 @@
+/*
+ * Copyright 2010-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package net.jodah.concurrentunit.internal;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Collects up to a fixed number of failures in a lock-free array, counting rather than retaining any beyond that. The
+ * first failure is reported, with the failures collected after it attached as suppressed exceptions along with a note
+ * of how many were dropped.
+ *
+ * @author Jonathan Halterman
+ */
+public class FailureCollector implements Failures {
+  private final AtomicReferenceArray<Throwable> failures;
+  /** The number of claimed slots */
+  private final AtomicInteger size = new AtomicInteger();
+  /** The number of slots that have been attached to the primary failure */
+  private final AtomicInteger attached = new AtomicInteger(1);
+  private final AtomicLong dropped = new AtomicLong();
+  private final AtomicLong reportedDropped = new AtomicLong();
+
+  public FailureCollector(int maxFailures) {
+    failures = new AtomicReferenceArray<Throwable>(maxFailures);
+  }
+
+  @Override
+  public void record(Throwable failure) {
+    int index;
+    do {
+      index = size.get();
+      if (index >= failures.length()) {
+        dropped.incrementAndGet();
+        return;
+      }
+    } while (!size.compareAndSet(index, index + 1));
+    failures.set(index, failure);
+  }
+
+  /**
+   * Returns true once the first failure has been published. Failures recorded in later slots are reported along with
+   * it.
+   */
+  @Override
+  public boolean isFailed() {
+    return failures.get(0) != null;
+  }
+
+  @Override
+  public Throwable get() {
+    Throwable primary = failures.get(0);
+    if (primary == null)
+      return null;
+
+    // Claim the published secondary failures that have yet to be attached
+    int from = attached.get();
+    int to = from;
+    int size = Math.min(this.size.get(), failures.length());
+    while (to < size && failures.get(to) != null)
+      to++;
+    if (to > from && attached.compareAndSet(from, to)) {
+      for (int i = from; i < to; i++) {
+        Throwable failure = failures.get(i);
+        if (failure != null && failure != primary)
+          primary.addSuppressed(failure);
+      }
+    }
+
+    long reported = reportedDropped.get();
+    long dropped = this.dropped.get();
+    if (dropped > reported && reportedDropped.compareAndSet(reported, dropped))
+      primary.addSuppressed(new AssertionError((dropped - reported) + " additional failures were dropped"));
+    return primary;
+  }
+
+  @Override
+  public void clear() {
+    for (int i = Math.min(size.get(), failures.length()) - 1; i >= 0; i--)
+      failures.set(i, null);
+    size.set(0);
+    attached.set(1);
+    dropped.set(0);
+    reportedDropped.set(0);
+  }
+
+  /**
+   * Returns the number of failures that were counted but not retained since the last {@link #clear()}.
+   */
+  public long dropped() {
+    return dropped.get();
+  }
+}
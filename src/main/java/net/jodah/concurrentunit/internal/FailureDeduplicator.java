@@ -0,0 +1,173 @@
+/*
+ * Copyright 2010-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package net.jodah.concurrentunit.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts failures by description rather than retaining each of them, and creates failures with a stack trace only for
+ * the first few occurrences of each description. The first failure is reported, with a summary of the occurrences of
+ * each distinct failure attached as suppressed exceptions.
+ *
+ * @author Jonathan Halterman
+ */
+public class FailureDeduplicator implements Failures {
+  /** The maximum number of distinct failures that are counted separately */
+  static final int MAX_DESCRIPTIONS = 64;
+  private static final String OTHER_FAILURES = "other failures";
+  private static final String PACKAGE = "net.jodah.concurrentunit.";
+
+  private final int tracedFailures;
+  private final ConcurrentMap<String, Occurrences> occurrences = new ConcurrentHashMap<String, Occurrences>();
+  private final AtomicReference<Throwable> first = new AtomicReference<Throwable>();
+  private final AtomicBoolean reported = new AtomicBoolean();
+
+  /**
+   * Occurrences of failures with the same description.
+   */
+  static final class Occurrences {
+    final String description;
+    final LongAdder count = new LongAdder();
+    final AtomicInteger traced = new AtomicInteger();
+    volatile Throwable sample;
+
+    Occurrences(String description) {
+      this.description = description;
+    }
+
+    @Override
+    public String toString() {
+      String site = sample == null ? null : callSite(sample);
+      return String.format("%,d x %s", count.sum(), description) + (site == null ? "" : " at " + site);
+    }
+  }
+
+  public FailureDeduplicator(int tracedFailures) {
+    this.tracedFailures = tracedFailures;
+  }
+
+  /**
+   * Returns a new failure, with a stack trace only if fewer than the configured number of traced failures have been
+   * created with the same description.
+   */
+  @Override
+  public AssertionError newFailure(String message, Throwable cause) {
+    AtomicInteger traced = occurrencesOf(describe(message, cause)).traced;
+    if (traced.get() < tracedFailures && traced.getAndIncrement() < tracedFailures)
+      return Failures.super.newFailure(message, cause);
+    return new StacklessAssertionError(message, cause);
+  }
+
+  @Override
+  public void record(Throwable failure) {
+    Occurrences occurrences = occurrencesOf(describe(failure));
+    occurrences.count.increment();
+    if (occurrences.sample == null)
+      occurrences.sample = failure;
+    first.compareAndSet(null, failure);
+  }
+
+  @Override
+  public boolean isFailed() {
+    return first.get() != null;
+  }
+
+  /**
+   * Returns the first failure, attaching a summary of the failures counted so far when first reported.
+   */
+  @Override
+  public Throwable get() {
+    Throwable primary = first.get();
+    if (primary != null && reported.compareAndSet(false, true)) {
+      List<Occurrences> summary = new ArrayList<Occurrences>(occurrences.values());
+      Collections.sort(summary, (a, b) -> Long.compare(b.count.sum(), a.count.sum()));
+      for (Occurrences o : summary)
+        primary.addSuppressed(new StacklessAssertionError(o.toString(), null));
+    }
+    return primary;
+  }
+
+  @Override
+  public void clear() {
+    occurrences.clear();
+    first.set(null);
+    reported.set(false);
+  }
+
+  /**
+   * Returns the number of failures recorded with the {@code description} since the last {@link #clear()}.
+   */
+  public long count(String description) {
+    Occurrences o = occurrences.get(description);
+    return o == null ? 0 : o.count.sum();
+  }
+
+  private Occurrences occurrencesOf(String description) {
+    Occurrences o = occurrences.get(description);
+    if (o == null) {
+      if (occurrences.size() >= MAX_DESCRIPTIONS) {
+        description = OTHER_FAILURES;
+        o = occurrences.get(description);
+        if (o != null)
+          return o;
+      }
+      Occurrences created = new Occurrences(description);
+      o = occurrences.putIfAbsent(description, created);
+      if (o == null)
+        o = created;
+    }
+    return o;
+  }
+
+  /**
+   * Describes a failure by its message, else by its cause.
+   */
+  static String describe(String message, Throwable cause) {
+    if (message != null)
+      return message;
+    if (cause != null)
+      return describe(cause);
+    return AssertionError.class.getName();
+  }
+
+  static String describe(Throwable failure) {
+    if (failure instanceof AssertionError)
+      return describe(failure.getMessage(), failure.getCause());
+    return failure.toString();
+  }
+
+  /**
+   * Returns the file and line of the first frame of the {@code failure} outside of ConcurrentUnit, else null.
+   */
+  static String callSite(Throwable failure) {
+    for (StackTraceElement element : failure.getStackTrace()) {
+      String className = element.getClassName();
+      if (className.equals(PACKAGE + "Waiter") || className.startsWith(PACKAGE + "Waiter$")
+          || className.equals(PACKAGE + "ConcurrentTestCase") || className.startsWith(PACKAGE + "internal."))
+        continue;
+      return element.getFileName() + ":" + element.getLineNumber();
+    }
+    return null;
+  }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2010-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package net.jodah.concurrentunit.internal;
+
+/**
+ * Records the failures reported to a Waiter. Implementations are lock-free so that failing threads never block.
+ *
+ * @author Jonathan Halterman
+ */
+public interface Failures {
+  /**
+   * Returns a new failure with the {@code message} and {@code cause}, either of which may be null.
+   */
+  default AssertionError newFailure(String message, Throwable cause) {
+    AssertionError failure = message == null ? new AssertionError() : new AssertionError(message);
+    if (cause != null)
+      failure.initCause(cause);
+    return failure;
+  }
+
+  /**
+   * Records the {@code failure}.
+   */
+  void record(Throwable failure);
+
+  /**
+   * Returns whether a failure has been recorded since the last {@link #clear()}.
+   */
+  boolean isFailed();
+
+  /**
+   * Returns the failure to report, else null if none has been recorded.
+   */
+  Throwable get();
+
+  /**
+   * Clears any recorded failures.
+   */
+  void clear();
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2010-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package net.jodah.concurrentunit.internal;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks resumes for any number of concurrent awaiters, each of which is released when the resumes in the generation
+ * it awaited reach its threshold. Resumes are counted monotonically, and a new generation begins from the current
+ * count, so awaiting never clobbers the count that other awaiters rely on.
+ * <p>
+ * Resumers only scan the awaiters when the count reaches the lowest outstanding threshold.
+ *
+ * @author Jonathan Halterman
+ */
+public class Generations {
+  private final AtomicLong resumes = new AtomicLong();
+  private final Queue<Awaiter> awaiters = new ConcurrentLinkedQueue<Awaiter>();
+  /** The lowest threshold among the awaiters, else Long.MAX_VALUE. */
+  private final AtomicLong nextThreshold = new AtomicLong(Long.MAX_VALUE);
+  /** The resume count at which the current generation began. */
+  private volatile long base;
+
+  /**
+   * An awaiter that completes when the total resume count reaches its threshold.
+   */
+  public final class Awaiter extends CompletableFuture<Void> {
+    private final long generationBase;
+    private final long threshold;
+
+    Awaiter(long generationBase, long threshold) {
+      this.generationBase = generationBase;
+      this.threshold = threshold;
+    }
+
+    /**
+     * Returns the number of resumes that have occurred in the generation this awaiter is waiting on.
+     */
+    public long actualResumes() {
+      return resumes.get() - generationBase;
+    }
+  }
+
+  /**
+   * Returns an awaiter that completes once {@code expectedResumes} have occurred in the current generation, which may
+   * already be completed.
+   */
+  public Awaiter await(long expectedResumes) {
+    long generationBase = base;
+    long threshold = generationBase + expectedResumes;
+    Awaiter awaiter = new Awaiter(generationBase, threshold);
+    if (resumes.get() >= threshold) {
+      awaiter.complete(null);
+      return awaiter;
+    }
+
+    awaiters.add(awaiter);
+    lowerNextThreshold(threshold);
+
+    // Re-check since a resumer may have missed the new threshold
+    if (resumes.get() >= threshold)
+      release();
+    return awaiter;
+  }
+
+  /**
+   * Records the {@code count} resumes, releasing any awaiters whose thresholds are reached.
+   */
+  public void resume(long count) {
+    if (resumes.addAndGet(count) >= nextThreshold.get())
+      release();
+  }
+
+  /**
+   * Removes the {@code awaiter}, such as after it times out.
+   */
+  public void remove(Awaiter awaiter) {
+    awaiters.remove(awaiter);
+  }
+
+  /**
+   * Completes all awaiters exceptionally with the {@code failure}.
+   */
+  public void fail(Throwable failure) {
+    for (Awaiter awaiter; (awaiter = awaiters.poll()) != null;)
+      awaiter.completeExceptionally(failure);
+  }
+
+  /**
+   * Begins a new generation, whose resumes are counted from zero. Existing awaiters are unaffected.
+   */
+  public void nextGeneration() {
+    base = resumes.get();
+  }
+
+  /**
+   * Returns the number of resumes that have occurred in the current generation.
+   */
+  public long resumes() {
+    return resumes.get() - base;
+  }
+
+  private void release() {
+    do {
+      nextThreshold.set(Long.MAX_VALUE);
+      long total = resumes.get();
+      for (Iterator<Awaiter> it = awaiters.iterator(); it.hasNext();) {
+        Awaiter awaiter = it.next();
+        if (awaiter.isDone())
+          it.remove();
+        else if (awaiter.threshold <= total) {
+          it.remove();
+          awaiter.complete(null);
+        } else
+          lowerNextThreshold(awaiter.threshold);
+      }
+
+      // Re-scan if a resumer reached a threshold while the next threshold was being recomputed
+    } while (resumes.get() >= nextThreshold.get());
+  }
+
+  private void lowerNextThreshold(long threshold) {
+    for (long next; threshold < (next = nextThreshold.get());)
+      if (nextThreshold.compareAndSet(next, threshold))
+        return;
+  }
+
+  @Override
+  public String toString() {
+    return "Generations[resumes=" + resumes() + ", awaiters=" + awaiters.size() + "]";
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2010-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package net.jodah.concurrentunit.internal;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Records latencies into log-linear buckets: values below 64 have their own bucket, and each higher power of two is
+ * split into 32 buckets, bounding the relative error of a bucket to about 3%. Counts are incremented atomically so that
+ * threads sharing a recorder do not lose records, and may be read concurrently.
+ *
+ * @author Jonathan Halterman
+ */
+public final class LatencyRecorder {
+  private static final int SUB_BUCKET_BITS = 5;
+  private static final int LINEAR_BUCKETS = 2 << SUB_BUCKET_BITS;
+  /** The number of buckets needed to cover every non-negative long */
+  public static final int BUCKETS = bucket(Long.MAX_VALUE) + 1;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final AtomicLong max = new AtomicLong();
+  private final AtomicLong count = new AtomicLong();
+
+  /**
+   * Records the {@code nanos}, treating negative values as 0.
+   */
+  public void record(long nanos) {
+    if (nanos < 0)
+      nanos = 0;
+    counts.incrementAndGet(bucket(nanos));
+    if (nanos > max.get())
+      max.accumulateAndGet(nanos, Math::max);
+
+    // Counted after the bucket so that a reader that observes the count also observes the bucket
+    count.incrementAndGet();
+  }
+
+  /**
+   * Returns the number of values recorded.
+   */
+  public long count() {
+    return count.get();
+  }
+
+  /**
+   * Adds the recorded counts to the {@code totals}, returning the largest value recorded.
+   */
+  public long addTo(long[] totals) {
+    for (int i = 0; i < BUCKETS; i++)
+      totals[i] += counts.get(i);
+    return max.get();
+  }
+
+  /**
+   * Returns the bucket for the non-negative {@code value}.
+   */
+  public static int bucket(long value) {
+    if (value < LINEAR_BUCKETS)
+      return (int) value;
+    int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+    return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+  }
+
+  /**
+   * Returns the largest value that falls into the {@code bucket}.
+   */
+  public static long upperBound(int bucket) {
+    if (bucket < LINEAR_BUCKETS)
+      return bucket;
+    int shift = (bucket >> SUB_BUCKET_BITS) - 1;
+    long mantissa = bucket - (shift << SUB_BUCKET_BITS);
+    return ((mantissa + 1) << shift) - 1;
+  }
+}
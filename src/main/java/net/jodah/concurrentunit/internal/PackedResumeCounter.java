@@ -0,0 +1,86 @@
+/*
+ * Copyright 2010-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package net.jodah.concurrentunit.internal;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link ResumeCounter} that packs the remaining resumes and a waiting bit into a single state word:
+ * {@code (remainingResumes << 1) | waiting}. Resumes decrement the remaining count with a single atomic add, and only
+ * the resume that transitions a waiting state to a satisfied one clears the waiting bit.
+ *
+ * @author Jonathan Halterman
+ */
+public class PackedResumeCounter implements ResumeCounter {
+  /** Low bit of the state word, set while a thread is waiting for remaining resumes. */
+  private static final long WAITING = 1L;
+  /** State word increment for a single resume. */
+  private static final long RESUME = 2L;
+
+  private final AtomicLong state = new AtomicLong();
+
+  @Override
+  public boolean arm(long expectedResumes) {
+    for (;;) {
+      long s = state.get();
+      long remaining = remaining(s) + expectedResumes;
+      boolean waiting = remaining > 0;
+      if (state.compareAndSet(s, remaining * RESUME | (waiting ? WAITING : 0)))
+        return waiting;
+    }
+  }
+
+  @Override
+  public boolean tryConsume(long expectedResumes) {
+    long s = state.get();
+    return s <= -expectedResumes * RESUME && state.compareAndSet(s, 0);
+  }
+
+  @Override
+  public boolean resume(long resumes) {
+    long s = state.addAndGet(-resumes * RESUME);
+    while (remaining(s) <= 0 && (s & WAITING) != 0) {
+      if (state.compareAndSet(s, s & ~WAITING))
+        return true;
+      s = state.get();
+    }
+    return false;
+  }
+
+  @Override
+  public boolean isWaiting() {
+    return (state.get() & WAITING) != 0;
+  }
+
+  @Override
+  public long remaining() {
+    return remaining(state.get());
+  }
+
+  @Override
+  public void reset() {
+    state.set(0);
+  }
+
+  private static long remaining(long state) {
+    return state >> 1;
+  }
+
+  @Override
+  public String toString() {
+    return "remaining=" + remaining();
+  }
+}
@@ -17,21 +17,47 @@ package net.jodah.concurrentunit.internal;
 
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.AbstractQueuedSynchronizer;
+import java.util.function.BooleanSupplier;
 
 /**
  * A circuit that accepts re-entrant {@link #open()} and {@link #close()} calls, allows waiting
- * threads to be interrupted, and ensures fairness when releasing {@link #await() waiting} threads.
+ * threads to be interrupted, and by default ensures fairness when releasing {@link #await() waiting} threads.
  * 
  * @author Jonathan Halterman
  */
 public class ReentrantCircuit {
-  private final Sync sync = new Sync();
+  private final Sync sync;
+  private final SpinWait spinWait;
+  private final BooleanSupplier closed;
+
+  /**
+   * Creates a fair circuit whose waiting threads park immediately.
+   */
+  public ReentrantCircuit() {
+    this(true, false);
+  }
+
+  /**
+   * Creates a circuit that is fair if {@code fair} is true, else allows acquisitions to barge ahead of queued threads
+   * without inspecting the queue. Waiting threads park immediately, else when {@code spinWait} is true, adaptively
+   * spin then yield before parking.
+   */
+  public ReentrantCircuit(boolean fair, boolean spinWait) {
+    this.sync = new Sync(fair);
+    this.spinWait = spinWait ? new SpinWait() : null;
+    this.closed = sync::isClosed;
+  }
 
   /**
    * Synchronization state of 0 = closed, 1 = open.
    */
   private static final class Sync extends AbstractQueuedSynchronizer {
     private static final long serialVersionUID = 992522674231731445L;
+    private final boolean fair;
+
+    Sync(boolean fair) {
+      this.fair = fair;
+    }
 
     /**
      * Closes the circuit.
@@ -48,9 +74,11 @@ public class ReentrantCircuit {
     @Override
     protected int tryAcquireShared(int acquires) {
       // Check to make sure the acquisition is not barging in front of a queued thread
-      Thread queuedThread = getFirstQueuedThread();
-      if (queuedThread != null && queuedThread != Thread.currentThread())
-        return -1;
+      if (fair) {
+        Thread queuedThread = getFirstQueuedThread();
+        if (queuedThread != null && queuedThread != Thread.currentThread())
+          return -1;
+      }
 
       // If await test
       if (acquires == 0)
@@ -74,7 +102,15 @@ public class ReentrantCircuit {
    * Waits for the circuit to be closed, aborting if interrupted.
    */
   public void await() throws InterruptedException {
-    sync.acquireSharedInterruptibly(0);
+    if (spinWait == null)
+      sync.acquireSharedInterruptibly(0);
+    else {
+      long start = System.nanoTime();
+      if (!spinWait.await(closed)) {
+        sync.acquireSharedInterruptibly(0);
+        spinWait.record(System.nanoTime() - start);
+      }
+    }
   }
 
   /**
@@ -82,7 +118,17 @@ public class ReentrantCircuit {
    * returning true if the circuit is closed else false.
    */
   public boolean await(long waitDuration, TimeUnit timeUnit) throws InterruptedException {
-    return sync.tryAcquireSharedNanos(0, timeUnit.toNanos(waitDuration));
+    long waitNanos = timeUnit.toNanos(waitDuration);
+    if (spinWait == null)
+      return sync.tryAcquireSharedNanos(0, waitNanos);
+
+    long start = System.nanoTime();
+    if (spinWait.await(closed))
+      return true;
+    boolean result = sync.tryAcquireSharedNanos(0, waitNanos - (System.nanoTime() - start));
+    if (result)
+      spinWait.record(System.nanoTime() - start);
+    return result;
   }
 
   /**
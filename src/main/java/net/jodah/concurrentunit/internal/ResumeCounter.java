@@ -0,0 +1,57 @@
+/*
+ * Copyright 2010-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package net.jodah.concurrentunit.internal;
+
+/**
+ * Counts resumes against the number of resumes an awaiting thread expects. Implementations are lock-free and ensure
+ * that only one caller observes the transition from waiting to satisfied.
+ *
+ * @author Jonathan Halterman
+ */
+public interface ResumeCounter {
+  /**
+   * Adds the {@code expectedResumes} to the count, returning true if the caller must wait for further resumes, else
+   * false if the expected resumes have already occurred.
+   */
+  boolean arm(long expectedResumes);
+
+  /**
+   * Resets the count and returns true if the {@code expectedResumes} have already occurred and no caller is waiting,
+   * else returns false without modifying the count.
+   */
+  boolean tryConsume(long expectedResumes);
+
+  /**
+   * Records the {@code resumes}, returning true if they satisfied a waiting caller, in which case the caller is
+   * responsible for waking it.
+   */
+  boolean resume(long resumes);
+
+  /**
+   * Returns whether a caller is waiting for resumes that have yet to occur.
+   */
+  boolean isWaiting();
+
+  /**
+   * Returns the number of resumes that have yet to occur.
+   */
+  long remaining();
+
+  /**
+   * Resets the count to zero, clearing any waiting state.
+   */
+  void reset();
+}
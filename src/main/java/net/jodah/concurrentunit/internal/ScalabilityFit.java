@@ -0,0 +1,112 @@
+/*
+ * Copyright 2010-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package net.jodah.concurrentunit.internal;
+
+/**
+ * Fits the Universal Scalability Law, {@code C(N) = N / (1 + sigma(N - 1) + kappa N(N - 1))}, to throughput measured
+ * at several concurrency levels, where {@code C(N)} is the throughput at {@code N} threads relative to the throughput
+ * at one thread. The contention coefficient {@code sigma} and coherency coefficient {@code kappa} are estimated by
+ * linear least squares of {@code N / C(N) - 1} on {@code N - 1} and {@code N(N - 1)}, and are clamped to be
+ * non-negative.
+ *
+ * @author Jonathan Halterman
+ */
+public final class ScalabilityFit {
+  private final double contention;
+  private final double coherency;
+
+  private ScalabilityFit(double contention, double coherency) {
+    this.contention = contention;
+    this.coherency = coherency;
+  }
+
+  /**
+   * Fits the law to the {@code throughputs} measured at the {@code threadCounts}, the first of which must be 1.
+   *
+   * @throws IllegalArgumentException if the lengths differ or the first thread count is not 1
+   */
+  public static ScalabilityFit fit(int[] threadCounts, double[] throughputs) {
+    if (threadCounts.length != throughputs.length)
+      throw new IllegalArgumentException("threadCounts and throughputs must have the same length");
+    if (threadCounts.length == 0 || threadCounts[0] != 1)
+      throw new IllegalArgumentException("throughput must be measured at 1 thread");
+
+    // Sums for the normal equations of y = sigma a + kappa b, where a = N - 1 and b = N(N - 1)
+    double saa = 0, sab = 0, sbb = 0, say = 0, sby = 0;
+    for (int i = 1; i < threadCounts.length; i++) {
+      double n = threadCounts[i];
+      double a = n - 1;
+      double b = n * (n - 1);
+      double y = n * throughputs[0] / throughputs[i] - 1;
+      saa += a * a;
+      sab += a * b;
+      sbb += b * b;
+      say += a * y;
+      sby += b * y;
+    }
+
+    double determinant = saa * sbb - sab * sab;
+    if (saa == 0)
+      return new ScalabilityFit(0, 0);
+    if (Math.abs(determinant) <= 1e-9 * saa * sbb)
+      return new ScalabilityFit(Math.max(0, say / saa), 0);
+
+    double contention = (say * sbb - sby * sab) / determinant;
+    double coherency = (saa * sby - sab * say) / determinant;
+    if (contention < 0) {
+      contention = 0;
+      coherency = Math.max(0, sby / sbb);
+    } else if (coherency < 0) {
+      coherency = 0;
+      contention = Math.max(0, say / saa);
+    }
+    return new ScalabilityFit(contention, coherency);
+  }
+
+  /**
+   * Returns the contention coefficient {@code sigma}, the fraction of work that is serialized.
+   */
+  public double contention() {
+    return contention;
+  }
+
+  /**
+   * Returns the coherency coefficient {@code kappa}, the cost of keeping shared state consistent between threads.
+   */
+  public double coherency() {
+    return coherency;
+  }
+
+  /**
+   * Returns the predicted throughput at {@code threads} relative to the throughput at one thread.
+   */
+  public double relativeCapacity(int threads) {
+    return threads / (1 + contention * (threads - 1) + coherency * threads * (threads - 1.0));
+  }
+
+  /**
+   * Returns the number of threads at which throughput is predicted to peak, else {@code Double.POSITIVE_INFINITY} if
+   * throughput is not predicted to decline.
+   */
+  public double peakThreads() {
+    return coherency == 0 ? Double.POSITIVE_INFINITY : Math.sqrt((1 - contention) / coherency);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("ScalabilityFit[contention=%.4f, coherency=%.6f]", contention, coherency);
+  }
+}
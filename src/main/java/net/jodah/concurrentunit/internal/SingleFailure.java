@@ -0,0 +1,61 @@
+/*
+ * Copyright 2010-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package net.jodah.concurrentunit.internal;
+
+/**
+ * Records a single failure, either the most recent or the first reported since the last {@link #clear()}.
+ *
+ * @author Jonathan Halterman
+ */
+public class SingleFailure implements Failures {
+  private final boolean retainFirst;
+  private volatile Throwable failure;
+
+  /**
+   * Creates a SingleFailure that records the most recent failure.
+   */
+  public SingleFailure() {
+    this(false);
+  }
+
+  /**
+   * Creates a SingleFailure that records the first failure if {@code retainFirst} is true, else the most recent.
+   */
+  public SingleFailure(boolean retainFirst) {
+    this.retainFirst = retainFirst;
+  }
+
+  @Override
+  public void record(Throwable failure) {
+    if (!retainFirst || this.failure == null)
+      this.failure = failure;
+  }
+
+  @Override
+  public boolean isFailed() {
+    return failure != null;
+  }
+
+  @Override
+  public Throwable get() {
+    return failure;
+  }
+
+  @Override
+  public void clear() {
+    failure = null;
+  }
+}
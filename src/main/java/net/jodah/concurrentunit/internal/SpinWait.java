@@ -0,0 +1,127 @@
+/*
+ * Copyright 2010-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package net.jodah.concurrentunit.internal;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.function.BooleanSupplier;
+
+/**
+ * An adaptive spin-then-yield wait that precedes parking. The spin budget tracks an exponentially weighted moving
+ * average of observed wait latencies, so that waits which are typically satisfied within a few microseconds spin
+ * rather than paying for a park and unpark, while waits that are typically long skip spinning altogether.
+ *
+ * @author Jonathan Halterman
+ */
+public class SpinWait {
+  private static final boolean MULTIPROCESSOR = Runtime.getRuntime().availableProcessors() > 1;
+  private static final MethodHandle ON_SPIN_WAIT = onSpinWaitHandle();
+  /** Upper bound on the spin budget, beyond which waits are expected to park. */
+  static final long MAX_SPIN_NANOS = 50_000;
+  /** Time to yield after spinning and before parking. */
+  static final long YIELD_NANOS = 20_000;
+  /** Spins to perform in {@link #spinUntil(BooleanSupplier)} before yielding. */
+  static final int MAX_GATE_SPINS = 1_000;
+
+  /** Moving average of wait latencies, initially assumed to be short. */
+  private volatile long averageNanos = MAX_SPIN_NANOS / 4;
+
+  /**
+   * Hints that the caller is busy-waiting, via {@code Thread.onSpinWait} on JDKs that support it.
+   */
+  public static void onSpinWait() {
+    if (ON_SPIN_WAIT != null) {
+      try {
+        ON_SPIN_WAIT.invokeExact();
+      } catch (Throwable ignore) {
+      }
+    }
+  }
+
+  /**
+   * Busy-waits until the {@code condition} is satisfied, spinning on multiprocessors and yielding once spinning has
+   * gone on for a while, or immediately on uniprocessors, so that the thread that satisfies the condition can run.
+   *
+   * @throws InterruptedException if the calling thread is interrupted while waiting
+   */
+  public static void spinUntil(BooleanSupplier condition) throws InterruptedException {
+    for (int spins = 0; !condition.getAsBoolean(); spins++) {
+      if (Thread.interrupted())
+        throw new InterruptedException();
+      if (MULTIPROCESSOR && spins < MAX_GATE_SPINS)
+        onSpinWait();
+      else
+        Thread.yield();
+    }
+  }
+
+  /**
+   * Spins then yields until the {@code condition} is satisfied, returning true if it was satisfied within the spin
+   * budget, else false if the caller should park. Spinning is skipped on uniprocessors.
+   *
+   * @throws InterruptedException if the calling thread is interrupted while spinning
+   */
+  public boolean await(BooleanSupplier condition) throws InterruptedException {
+    long spinNanos = spinNanos();
+    long start = System.nanoTime();
+    long elapsed = 0;
+    while (!condition.getAsBoolean()) {
+      if (Thread.interrupted())
+        throw new InterruptedException();
+      elapsed = System.nanoTime() - start;
+      if (elapsed >= spinNanos + YIELD_NANOS)
+        return false;
+      if (elapsed < spinNanos)
+        onSpinWait();
+      else
+        Thread.yield();
+    }
+    record(elapsed);
+    return true;
+  }
+
+  /**
+   * Records the latency of a wait that was satisfied after parking. Latencies are capped so that a single long wait
+   * does not disable spinning for many subsequent short ones.
+   */
+  public void record(long waitNanos) {
+    waitNanos = Math.min(waitNanos, MAX_SPIN_NANOS << 1);
+    long average = averageNanos;
+    averageNanos = average + ((waitNanos - average) >> 3);
+  }
+
+  /**
+   * Returns the current spin budget, which is twice the average wait latency, or 0 if waits are typically long.
+   */
+  public long spinNanos() {
+    long spinNanos = averageNanos << 1;
+    return MULTIPROCESSOR && spinNanos <= MAX_SPIN_NANOS ? spinNanos : 0;
+  }
+
+  private static MethodHandle onSpinWaitHandle() {
+    try {
+      return MethodHandles.lookup().findStatic(Thread.class, "onSpinWait", MethodType.methodType(void.class));
+    } catch (Exception e) {
+      return null;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "SpinWait[spinNanos=" + spinNanos() + "]";
+  }
+}
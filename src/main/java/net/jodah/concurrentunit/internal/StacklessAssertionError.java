@@ -0,0 +1,34 @@
+/*
+ * Copyright 2010-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package net.jodah.concurrentunit.internal;
+
+/**
+ * An AssertionError that does not capture a stack trace.
+ *
+ * @author Jonathan Halterman
+ */
+public class StacklessAssertionError extends AssertionError {
+  private static final long serialVersionUID = -4263580183347612830L;
+
+  public StacklessAssertionError(String message, Throwable cause) {
+    super(message, cause);
+  }
+
+  @Override
+  public Throwable fillInStackTrace() {
+    return this;
+  }
+}
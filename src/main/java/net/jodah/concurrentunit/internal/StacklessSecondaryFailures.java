@@ -0,0 +1,57 @@
+/*
+ * Copyright 2010-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package net.jodah.concurrentunit.internal;
+
+/**
+ * Decorates Failures so that failures created after the first has been recorded do not capture a stack trace, keeping
+ * the primary diagnostic intact while making the failures that follow it cheap.
+ *
+ * @author Jonathan Halterman
+ */
+public class StacklessSecondaryFailures implements Failures {
+  private final Failures delegate;
+
+  public StacklessSecondaryFailures(Failures delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public AssertionError newFailure(String message, Throwable cause) {
+    if (delegate.isFailed())
+      return new StacklessAssertionError(message, cause);
+    return delegate.newFailure(message, cause);
+  }
+
+  @Override
+  public void record(Throwable failure) {
+    delegate.record(failure);
+  }
+
+  @Override
+  public boolean isFailed() {
+    return delegate.isFailed();
+  }
+
+  @Override
+  public Throwable get() {
+    return delegate.get();
+  }
+
+  @Override
+  public void clear() {
+    delegate.clear();
+  }
+}
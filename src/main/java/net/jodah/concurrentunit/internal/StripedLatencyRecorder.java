@@ -0,0 +1,75 @@
+/*
+ * Copyright 2010-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package net.jodah.concurrentunit.internal;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Records latencies from any number of threads into a fixed set of {@link LatencyRecorder} stripes, selected by a hash
+ * of the recording thread, so that memory is bounded by the number of stripes rather than the number of threads that
+ * ever recorded. Stripes are created on first use.
+ *
+ * @author Jonathan Halterman
+ */
+public final class StripedLatencyRecorder {
+  private static final int STRIPES = Math.min(64,
+      Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)) << 1);
+
+  private final AtomicReferenceArray<LatencyRecorder> stripes = new AtomicReferenceArray<LatencyRecorder>(STRIPES);
+
+  /**
+   * Records the {@code nanos} into the current thread's stripe, treating negative values as 0.
+   */
+  public void record(long nanos) {
+    int index = stripe();
+    LatencyRecorder recorder = stripes.get(index);
+    if (recorder == null && !stripes.compareAndSet(index, null, recorder = new LatencyRecorder()))
+      recorder = stripes.get(index);
+    recorder.record(nanos);
+  }
+
+  /**
+   * Returns the number of values recorded across all stripes.
+   */
+  public long count() {
+    long count = 0;
+    for (int i = 0; i < STRIPES; i++) {
+      LatencyRecorder recorder = stripes.get(i);
+      if (recorder != null)
+        count += recorder.count();
+    }
+    return count;
+  }
+
+  /**
+   * Adds the counts recorded by every stripe to the {@code totals}, returning the largest value recorded.
+   */
+  public long addTo(long[] totals) {
+    long max = 0;
+    for (int i = 0; i < STRIPES; i++) {
+      LatencyRecorder recorder = stripes.get(i);
+      if (recorder != null)
+        max = Math.max(max, recorder.addTo(totals));
+    }
+    return max;
+  }
+
+  private static int stripe() {
+    long id = Thread.currentThread().getId();
+    int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+    return (h >>> 16) & (STRIPES - 1);
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2010-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package net.jodah.concurrentunit.internal;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A {@link ResumeCounter} that accumulates resumes in striped cells so that resuming threads do not contend on a
+ * single counter. Batches of {@link #BATCH} or more resumes are added to a shared base instead, so that a single
+ * resume never moves a cell by a full batch. While a caller is waiting, a resumer only sums the count when it adds to
+ * the base, when its own cell crosses a multiple of {@link #BATCH}, when another sum is in progress, or when the last
+ * observed sum is close enough to the target that any resume could satisfy it. The waiting caller is woken by the
+ * first resumer that observes the summed count reaching the expected count.
+ *
+ * @author Jonathan Halterman
+ */
+public class StripedResumeCounter implements ResumeCounter {
+  /** Resumes a cell may accumulate between sums while a caller is waiting. */
+  static final int BATCH = 32;
+  /** Slots between cells, so that each cell occupies its own cache line. */
+  private static final int STRIDE = 16;
+  private static final int CELLS = Math.min(64,
+      Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)) << 1);
+
+  private final AtomicLongArray cells = new AtomicLongArray(CELLS * STRIDE);
+  /** Resumes recorded in batches of {@link #BATCH} or more. */
+  private final AtomicLong base = new AtomicLong();
+  /** Total resumes expected since the last reset. */
+  private final AtomicLong expected = new AtomicLong();
+  /** Expected resumes that a waiting caller is blocked on, else 0 when no caller is waiting. */
+  private final AtomicLong target = new AtomicLong();
+  /**
+   * The greatest sum of the cells observed while a caller is waiting. When no sum is in progress, every cell has been
+   * summed since it last accumulated a full {@link #BATCH}, so the cells total less than this plus
+   * {@code CELLS * BATCH}.
+   */
+  private final AtomicLong observed = new AtomicLong();
+  /** The number of sums in progress, whose results have yet to be published to {@link #observed}. */
+  private final AtomicInteger summing = new AtomicInteger();
+
+  @Override
+  public boolean arm(long expectedResumes) {
+    long t = expected.addAndGet(expectedResumes);
+    if (sum() >= t)
+      return false;
+
+    // Publish the target then re-check, since resumers that missed the target will not have summed the count
+    target.set(t);
+    return !(observe() >= t && target.compareAndSet(t, 0));
+  }
+
+  @Override
+  public boolean tryConsume(long expectedResumes) {
+    if (target.get() != 0 || sum() < expected.get() + expectedResumes)
+      return false;
+    reset();
+    return true;
+  }
+
+  @Override
+  public boolean resume(long count) {
+    boolean crossed;
+    if (count >= BATCH) {
+      base.addAndGet(count);
+      crossed = true;
+    } else {
+      long c = cells.addAndGet(cellIndex(), count);
+      crossed = (c - count) / BATCH != c / BATCH;
+    }
+
+    long t = target.get();
+    if (t == 0 || (!crossed && summing.get() == 0 && base.get() + observed.get() + (long) CELLS * BATCH < t))
+      return false;
+    return observe() >= t && target.compareAndSet(t, 0);
+  }
+
+  @Override
+  public boolean isWaiting() {
+    return target.get() != 0;
+  }
+
+  @Override
+  public long remaining() {
+    return expected.get() - sum();
+  }
+
+  @Override
+  public void reset() {
+    target.set(0);
+    expected.set(0);
+    base.set(0);
+    observed.set(0);
+    for (int i = 0; i < CELLS; i++)
+      cells.set(i * STRIDE, 0);
+  }
+
+  @Override
+  public String toString() {
+    return "remaining=" + remaining();
+  }
+
+  /**
+   * Sums the count, publishing the sum of the cells to {@link #observed} before the sum is no longer in progress.
+   */
+  private long observe() {
+    summing.incrementAndGet();
+    try {
+      long cellSum = cellSum();
+      observed.accumulateAndGet(cellSum, Math::max);
+      return base.get() + cellSum;
+    } finally {
+      summing.decrementAndGet();
+    }
+  }
+
+  private long sum() {
+    return base.get() + cellSum();
+  }
+
+  private long cellSum() {
+    long sum = 0;
+    for (int i = 0; i < CELLS; i++)
+      sum += cells.get(i * STRIDE);
+    return sum;
+  }
+
+  private static int cellIndex() {
+    long id = Thread.currentThread().getId();
+    int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+    return ((h >>> 16) & (CELLS - 1)) * STRIDE;
+  }
+}
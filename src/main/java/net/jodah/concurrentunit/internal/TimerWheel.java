@@ -0,0 +1,255 @@
+/*
+ * Copyright 2010-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package net.jodah.concurrentunit.internal;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A hashed wheel timer that expires timeouts from a single daemon thread. Scheduling and cancelling a timeout are
+ * lock-free queue operations, and the timer thread only visits the wheel bucket for the current tick, so the cost of
+ * outstanding timeouts is independent of how many there are. Timeouts expire within one tick of their deadline.
+ * <p>
+ * The timer thread is started on first use and parks while there are no outstanding timeouts. Expiration tasks run on
+ * the timer thread and should not block.
+ *
+ * @author Jonathan Halterman
+ */
+public class TimerWheel {
+  /** The longest delay, about 73 years, past which deadlines are saturated so that their tick cannot overflow. */
+  private static final long MAX_DELAY_NANOS = Long.MAX_VALUE >> 2;
+
+  private final String name;
+  private final long tickNanos;
+  private final Bucket[] wheel;
+  private final int mask;
+  private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<Timeout>();
+  private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<Timeout>();
+  /** Timeouts that have been scheduled but not yet expired or removed by the timer thread. */
+  private final AtomicLong outstanding = new AtomicLong();
+  private final AtomicBoolean started = new AtomicBoolean();
+  private volatile Thread worker;
+  private volatile long startTime;
+
+  /**
+   * Creates a timer named {@code name} that ticks every {@code tickDuration} over a wheel of {@code wheelSize}
+   * buckets, which is rounded up to a power of two.
+   */
+  public TimerWheel(String name, long tickDuration, TimeUnit timeUnit, int wheelSize) {
+    this.name = name;
+    this.tickNanos = timeUnit.toNanos(tickDuration);
+    int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+    this.wheel = new Bucket[size];
+    for (int i = 0; i < size; i++)
+      wheel[i] = new Bucket();
+    this.mask = size - 1;
+  }
+
+  /**
+   * A scheduled timeout that can be cancelled.
+   */
+  public static final class Timeout {
+    private static final int PENDING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    private final TimerWheel timer;
+    private final Runnable task;
+    private final long deadline;
+    private final AtomicInteger state = new AtomicInteger();
+
+    // Owned by the timer thread
+    private long rounds;
+    private Bucket bucket;
+    private Timeout prev;
+    private Timeout next;
+
+    Timeout(TimerWheel timer, Runnable task, long deadline) {
+      this.timer = timer;
+      this.task = task;
+      this.deadline = deadline;
+    }
+
+    /**
+     * Cancels the timeout, returning true if it was cancelled before it expired, else false.
+     */
+    public boolean cancel() {
+      if (!state.compareAndSet(PENDING, CANCELLED))
+        return false;
+      timer.cancelled.add(this);
+      return true;
+    }
+
+    /**
+     * Returns whether the timeout has expired and its task has been run or is being run.
+     */
+    public boolean isExpired() {
+      return state.get() == EXPIRED;
+    }
+
+    boolean expire() {
+      return state.compareAndSet(PENDING, EXPIRED);
+    }
+
+    boolean isCancelled() {
+      return state.get() == CANCELLED;
+    }
+  }
+
+  /**
+   * A doubly linked list of timeouts, owned by the timer thread.
+   */
+  private static final class Bucket {
+    private Timeout head;
+    private Timeout tail;
+
+    void add(Timeout timeout) {
+      timeout.bucket = this;
+      if (head == null)
+        head = tail = timeout;
+      else {
+        tail.next = timeout;
+        timeout.prev = tail;
+        tail = timeout;
+      }
+    }
+
+    void remove(Timeout timeout) {
+      if (timeout.prev == null)
+        head = timeout.next;
+      else
+        timeout.prev.next = timeout.next;
+      if (timeout.next == null)
+        tail = timeout.prev;
+      else
+        timeout.next.prev = timeout.prev;
+      timeout.prev = timeout.next = null;
+      timeout.bucket = null;
+    }
+  }
+
+  /**
+   * Schedules the {@code task} to run on the timer thread after the {@code delay} unless the returned timeout is
+   * cancelled first. Delays longer than about 73 years never expire.
+   */
+  public Timeout schedule(Runnable task, long delay, TimeUnit timeUnit) {
+    start();
+    long delayNanos = Math.min(timeUnit.toNanos(delay), MAX_DELAY_NANOS);
+    Timeout timeout = new Timeout(this, task, System.nanoTime() + delayNanos);
+    scheduled.add(timeout);
+    if (outstanding.getAndIncrement() == 0)
+      LockSupport.unpark(worker);
+    return timeout;
+  }
+
+  /**
+   * Returns the number of timeouts that have not yet expired or been removed after cancellation.
+   */
+  public long outstanding() {
+    return outstanding.get();
+  }
+
+  private void start() {
+    if (worker == null && started.compareAndSet(false, true)) {
+      startTime = System.nanoTime();
+      Thread thread = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          runWorker();
+        }
+      }, name);
+      thread.setDaemon(true);
+      worker = thread;
+      thread.start();
+    }
+
+    // Another thread may be starting the worker
+    while (worker == null)
+      Thread.yield();
+  }
+
+  private void runWorker() {
+    long tick = 0;
+    for (;;) {
+      if (outstanding.get() == 0) {
+        LockSupport.park(this);
+
+        // The wheel is empty, so skip the ticks that elapsed while parked
+        tick = Math.max(tick, (System.nanoTime() - startTime) / tickNanos);
+        continue;
+      }
+
+      long sleepNanos = startTime + (tick + 1) * tickNanos - System.nanoTime();
+      if (sleepNanos > 0) {
+        LockSupport.parkNanos(this, sleepNanos);
+        continue;
+      }
+
+      removeCancelled();
+      transferScheduled(tick);
+      expire(wheel[(int) (tick & mask)]);
+      tick++;
+    }
+  }
+
+  private void removeCancelled() {
+    for (Timeout timeout; (timeout = cancelled.poll()) != null;) {
+      if (timeout.bucket != null)
+        timeout.bucket.remove(timeout);
+      outstanding.decrementAndGet();
+    }
+  }
+
+  private void transferScheduled(long currentTick) {
+    for (Timeout timeout; (timeout = scheduled.poll()) != null;) {
+      if (timeout.isCancelled())
+        continue;
+
+      // The tick whose processing time is the first at or after the deadline
+      long deadlineTick = (timeout.deadline - startTime + tickNanos - 1) / tickNanos - 1;
+      long tick = Math.max(deadlineTick, currentTick);
+      timeout.rounds = (tick - currentTick) / wheel.length;
+      wheel[(int) (tick & mask)].add(timeout);
+    }
+  }
+
+  private void expire(Bucket bucket) {
+    for (Timeout timeout = bucket.head; timeout != null;) {
+      Timeout next = timeout.next;
+      if (timeout.rounds > 0)
+        timeout.rounds--;
+      else if (timeout.expire()) {
+        bucket.remove(timeout);
+        outstanding.decrementAndGet();
+        try {
+          timeout.task.run();
+        } catch (Throwable ignore) {
+        }
+      }
+      timeout = next;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return name + "[outstanding=" + outstanding() + "]";
+  }
+}
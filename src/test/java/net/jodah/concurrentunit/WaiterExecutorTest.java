@@ -0,0 +1,169 @@
+package net.jodah.concurrentunit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.Test;
+
+/**
+ * Tests {@link WaiterExecutor}.
+ */
+@Test
+public class WaiterExecutorTest {
+  public void shouldAwaitQuiescence() throws Throwable {
+    final Waiter waiter = new Waiter();
+    WaiterExecutor executor = waiter.executor();
+    final AtomicInteger runs = new AtomicInteger();
+
+    for (int round = 1; round <= 2; round++) {
+      for (int i = 0; i < 100; i++)
+        executor.execute(new Runnable() {
+          public void run() {
+            Thread thread = Thread.currentThread();
+            waiter.assertTrue(thread.isDaemon());
+            waiter.assertTrue(thread.getName().startsWith("ConcurrentUnit-Executor-"));
+            runs.incrementAndGet();
+          }
+        });
+      executor.awaitQuiescence(5, TimeUnit.SECONDS);
+      assertEquals(runs.get(), round * 100);
+    }
+
+    executor.awaitQuiescence(5, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Asserts that task completions are not counted as resumes of the Waiter.
+   */
+  @Test(expectedExceptions = TimeoutException.class)
+  public void shouldNotResumeWaiterOnTaskCompletion() throws Throwable {
+    Waiter waiter = new Waiter();
+    WaiterExecutor executor = waiter.executor();
+    for (int i = 0; i < 4; i++)
+      executor.execute(new Runnable() {
+        public void run() {
+        }
+      });
+    Thread.sleep(50);
+    executor.awaitQuiescence(5, TimeUnit.SECONDS);
+
+    waiter.await(100);
+  }
+
+  /**
+   * Asserts that tasks which complete before an await times out are not awaited again.
+   */
+  public void shouldAwaitQuiescenceAfterTimeout() throws Throwable {
+    Waiter waiter = new Waiter();
+    WaiterExecutor executor = waiter.executor();
+    final CountDownLatch release = new CountDownLatch(1);
+    executor.execute(new Runnable() {
+      public void run() {
+      }
+    });
+    executor.execute(new Runnable() {
+      public void run() {
+        try {
+          release.await();
+        } catch (InterruptedException ignore) {
+        }
+      }
+    });
+
+    try {
+      executor.awaitQuiescence(50, TimeUnit.MILLISECONDS);
+      fail();
+    } catch (TimeoutException expected) {
+    }
+
+    release.countDown();
+    executor.awaitQuiescence(5, TimeUnit.SECONDS);
+  }
+
+  public void shouldFailOnTaskException() throws Throwable {
+    Waiter waiter = new Waiter();
+    WaiterExecutor executor = waiter.executor();
+    executor.submit(new Callable<Void>() {
+      public Void call() throws Exception {
+        throw new IllegalStateException();
+      }
+    });
+
+    try {
+      executor.awaitQuiescence(5, TimeUnit.SECONDS);
+      fail();
+    } catch (AssertionError e) {
+      assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+  }
+
+  /**
+   * Asserts that a failure the Waiter already threw from within a task is not recorded again.
+   */
+  public void shouldNotRecordWaiterFailuresTwice() throws Throwable {
+    final Waiter waiter = Waiter.builder().collectFailures(10).build();
+    WaiterExecutor executor = waiter.executor();
+    executor.execute(new Runnable() {
+      public void run() {
+        waiter.fail("executed");
+      }
+    });
+    executor.submit(new Runnable() {
+      public void run() {
+        waiter.fail("submitted");
+      }
+    });
+
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+    try {
+      executor.awaitQuiescence(5, TimeUnit.SECONDS);
+      fail();
+    } catch (AssertionError e) {
+      assertEquals(e.getSuppressed().length, 1);
+    }
+  }
+
+  public void shouldClearInterruptsAfterEachTask() throws Throwable {
+    final Waiter waiter = new Waiter();
+    WaiterExecutor executor = waiter.executor();
+    for (int i = 0; i < 20; i++)
+      executor.execute(new Runnable() {
+        public void run() {
+          waiter.assertTrue(!Thread.currentThread().isInterrupted());
+          Thread.currentThread().interrupt();
+        }
+      });
+
+    executor.awaitQuiescence(5, TimeUnit.SECONDS);
+  }
+
+  public void shouldRejectTasksAfterShutdown() throws Throwable {
+    WaiterExecutor executor = new Waiter().executor();
+    executor.execute(new Runnable() {
+      public void run() {
+      }
+    });
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    assertTrue(executor.isTerminated());
+
+    try {
+      executor.execute(new Runnable() {
+        public void run() {
+        }
+      });
+      fail();
+    } catch (RejectedExecutionException expected) {
+    }
+  }
+}
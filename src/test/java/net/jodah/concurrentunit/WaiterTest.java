@@ -1,13 +1,26 @@
 package net.jodah.concurrentunit;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.fail;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
 
+import org.testng.SkipException;
 import org.testng.annotations.Test;
 
 /**
@@ -250,4 +263,888 @@ public class WaiterTest {
     w.resume();
     w.await();
   }
+
+  public void shouldSupportConcurrentResumes() throws Throwable {
+    final Waiter w = new Waiter();
+    final int threads = 8;
+    final int resumesPerThread = 10000;
+
+    for (int i = 0; i < threads; i++)
+      new Thread(new Runnable() {
+        public void run() {
+          for (int j = 0; j < resumesPerThread; j++)
+            w.resume();
+        }
+      }).start();
+
+    w.await(5000, threads * resumesPerThread);
+  }
+
+  public void shouldSupportStripedResumes() throws Throwable {
+    final Waiter w = Waiter.striped();
+    final int threads = 8;
+    final int resumesPerThread = 10000;
+
+    for (int i = 0; i < threads; i++)
+      new Thread(new Runnable() {
+        public void run() {
+          for (int j = 0; j < resumesPerThread; j++)
+            w.resume();
+        }
+      }).start();
+
+    w.await(5000, threads * resumesPerThread);
+    w.resume();
+    w.await();
+  }
+
+  /**
+   * Ensures that resuming from many virtual threads completes without pinning or starving carrier threads. Skipped on
+   * JDKs without virtual threads.
+   */
+  public void shouldSupportVirtualThreads() throws Throwable {
+    ExecutorService executor;
+    try {
+      executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (NoSuchMethodException e) {
+      throw new SkipException("Virtual threads are not supported");
+    }
+
+    final Waiter w = new Waiter();
+    final int threads = 1000000;
+    try {
+      for (int i = 0; i < threads; i++)
+        executor.execute(new Runnable() {
+          public void run() {
+            w.resume();
+          }
+        });
+
+      w.await(60, TimeUnit.SECONDS, threads);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  public void shouldCompleteAsyncAwaitOnResumes() throws Throwable {
+    final Waiter w = new Waiter();
+    CompletableFuture<Void> future = w.awaitAsync(5, TimeUnit.SECONDS, 3).toCompletableFuture();
+
+    new Thread(new Runnable() {
+      public void run() {
+        for (int i = 0; i < 3; i++)
+          w.resume();
+      }
+    }).start();
+
+    future.get(5, TimeUnit.SECONDS);
+    w.resume();
+    w.awaitAsync().toCompletableFuture().get(5, TimeUnit.SECONDS);
+  }
+
+  public void shouldCompleteAsyncAwaitWhenResumesAlreadyOccurred() throws Throwable {
+    Waiter w = new Waiter();
+    w.resume();
+    w.resume();
+    assertTrue(w.awaitAsync(0, TimeUnit.MILLISECONDS, 2).toCompletableFuture().isDone());
+  }
+
+  public void shouldCompleteAsyncAwaitExceptionallyOnFailure() throws Throwable {
+    final Waiter w = new Waiter();
+    CompletableFuture<Void> future = w.awaitAsync().toCompletableFuture();
+
+    new Thread(new Runnable() {
+      public void run() {
+        w.fail(new IllegalArgumentException());
+      }
+    }).start();
+
+    try {
+      future.get(5, TimeUnit.SECONDS);
+      fail();
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof AssertionError);
+      assertTrue(e.getCause().getCause() instanceof IllegalArgumentException);
+    }
+  }
+
+  public void shouldTimeoutAsyncAwait() throws Throwable {
+    Waiter w = new Waiter();
+    w.resume();
+    CompletableFuture<Void> future = w.awaitAsync(10, TimeUnit.MILLISECONDS, 3).toCompletableFuture();
+
+    try {
+      future.get(5, TimeUnit.SECONDS);
+      fail();
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof TimeoutException);
+      assertTrue(e.getCause().getMessage().contains("actualResumes: 1"));
+    }
+  }
+
+  /**
+   * Asserts that a circuit close arriving late from a previous timed await does not release an untimed await.
+   */
+  @Test(timeOut = 30000)
+  public void shouldIgnoreLateClosesInUntimedAwaits() throws Throwable {
+    final Waiter w = new Waiter();
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      for (int i = 0; i < 1000; i++) {
+        final CountDownLatch done = new CountDownLatch(1);
+        executor.execute(new Runnable() {
+          public void run() {
+            w.resume();
+            done.countDown();
+          }
+        });
+        try {
+          w.await(1, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+          // Consume the resume if it arrived after the timeout reset the count
+          done.await();
+          try {
+            w.await(10);
+          } catch (TimeoutException ignore) {
+          }
+        }
+        done.await();
+
+        final AtomicBoolean resumed = new AtomicBoolean();
+        executor.execute(new Runnable() {
+          public void run() {
+            Thread.yield();
+            resumed.set(true);
+            w.resume();
+          }
+        });
+        w.await();
+        assertTrue(resumed.get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  public void shouldNotTimeoutEffectivelyInfiniteAwaits() throws Throwable {
+    for (long delay : new long[] { Long.MAX_VALUE, Long.MAX_VALUE / 2 }) {
+      final Waiter w = new Waiter();
+      new Thread(new Runnable() {
+        public void run() {
+          try {
+            Thread.sleep(100);
+          } catch (InterruptedException ignore) {
+          }
+          w.resume();
+        }
+      }).start();
+
+      w.await(delay);
+    }
+  }
+
+  public void shouldNotDelayOtherTimeoutsWhileTimedOutAsyncAwaitCallbacksBlock() throws Throwable {
+    final CountDownLatch release = new CountDownLatch(1);
+    final CountDownLatch blocked = new CountDownLatch(2);
+    Runnable block = new Runnable() {
+      public void run() {
+        blocked.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException ignore) {
+        }
+      }
+    };
+    new Waiter().awaitAsync(10, TimeUnit.MILLISECONDS, 1).whenComplete((result, error) -> block.run());
+    Waiter.builder().generational().build().awaitAsync(10, TimeUnit.MILLISECONDS, 1)
+        .whenComplete((result, error) -> block.run());
+
+    try {
+      assertTrue(blocked.await(5, TimeUnit.SECONDS));
+      long start = System.nanoTime();
+      try {
+        new Waiter().await(100);
+        fail();
+      } catch (TimeoutException expected) {
+      }
+      assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+    } finally {
+      release.countDown();
+    }
+  }
+
+  public void shouldAbandonCancelledAsyncAwait() throws Throwable {
+    Waiter w = new Waiter();
+    w.awaitAsync(0, TimeUnit.MILLISECONDS, 2).toCompletableFuture().cancel(false);
+
+    CompletableFuture<Void> future = w.awaitAsync().toCompletableFuture();
+    assertFalse(future.isDone());
+    w.resume();
+    assertTrue(future.isDone());
+  }
+
+  public void shouldSupportSpinWaiting() throws Throwable {
+    final Waiter ping = Waiter.builder().spinWait().build();
+    final Waiter pong = Waiter.builder().spinWait().build();
+    final int rounds = 1000;
+
+    new Thread(new Runnable() {
+      public void run() {
+        try {
+          for (int i = 0; i < rounds; i++) {
+            ping.await(1000);
+            pong.resume();
+          }
+        } catch (Exception e) {
+          pong.rethrow(e);
+        }
+      }
+    }).start();
+
+    for (int i = 0; i < rounds; i++) {
+      ping.resume();
+      pong.await(1000);
+    }
+  }
+
+  public void shouldSupportBatchResumes() throws Throwable {
+    final Waiter w = new Waiter();
+
+    new Thread(new Runnable() {
+      public void run() {
+        for (int i = 0; i < 4; i++)
+          w.resume(512);
+      }
+    }).start();
+
+    w.await(1000, 2048);
+    w.resume(3);
+    w.await(0, 3);
+  }
+
+  public void shouldSupportExpectedResumesBeyondIntegerRange() throws Throwable {
+    for (Waiter w : new Waiter[] { new Waiter(), Waiter.striped() }) {
+      final long expectedResumes = 3L * Integer.MAX_VALUE;
+      for (int i = 0; i < 3; i++)
+        w.resume(Integer.MAX_VALUE);
+      w.await(1000, expectedResumes);
+
+      // Resumes running ahead of an await should not overflow
+      for (int i = 0; i < 3; i++)
+        w.resume(Integer.MAX_VALUE);
+      w.resume();
+      w.await(0, TimeUnit.MILLISECONDS, expectedResumes + 1);
+    }
+  }
+
+  @Test(expectedExceptions = TimeoutException.class)
+  public void shouldTimeoutWithExpectedResumesBeyondIntegerRange() throws Throwable {
+    Waiter w = new Waiter();
+    w.resume(Integer.MAX_VALUE);
+    w.await(10, Integer.MAX_VALUE + 1L);
+  }
+
+  public void shouldRejectExpectedResumesOutOfRange() throws Throwable {
+    Waiter w = new Waiter();
+    w.resume();
+    for (long expectedResumes : new long[] { -1, Long.MAX_VALUE, (Long.MAX_VALUE >> 1) + 1 }) {
+      try {
+        w.await(0, expectedResumes);
+        fail();
+      } catch (IllegalArgumentException expected) {
+      }
+      try {
+        w.awaitAsync(0, TimeUnit.MILLISECONDS, expectedResumes);
+        fail();
+      } catch (IllegalArgumentException expected) {
+      }
+    }
+  }
+
+  public void shouldReleaseConcurrentGenerationalAwaiters() throws Throwable {
+    final Waiter w = Waiter.builder().generational().build();
+    final Waiter released = new Waiter();
+    final AtomicInteger releases = new AtomicInteger();
+
+    for (int i = 1; i <= 3; i++) {
+      final int expectedResumes = i * 10;
+      for (int j = 0; j < 2; j++)
+        new Thread(new Runnable() {
+          public void run() {
+            try {
+              w.await(5000, expectedResumes);
+              releases.incrementAndGet();
+              released.resume();
+            } catch (Throwable t) {
+              released.rethrow(t);
+            }
+          }
+        }).start();
+    }
+
+    Thread.sleep(100);
+    w.resume(9);
+    Thread.sleep(100);
+    assertEquals(releases.get(), 0);
+    w.resume();
+    released.await(1000, 2);
+    w.resume(20);
+    released.await(1000, 4);
+    assertEquals(releases.get(), 6);
+  }
+
+  public void shouldSupportGenerations() throws Throwable {
+    Waiter w = Waiter.builder().generational().build();
+    w.resume(2);
+    w.await(0, 1);
+    w.await(0, 2);
+    CompletableFuture<Void> future = w.awaitAsync(0, TimeUnit.MILLISECONDS, 3).toCompletableFuture();
+    assertFalse(future.isDone());
+
+    w.nextGeneration();
+    CompletableFuture<Void> nextFuture = w.awaitAsync(0, TimeUnit.MILLISECONDS, 1).toCompletableFuture();
+    w.resume();
+    assertTrue(future.isDone());
+    assertTrue(nextFuture.isDone());
+  }
+
+  public void shouldFailAllGenerationalAwaiters() throws Throwable {
+    final Waiter w = Waiter.builder().generational().build();
+    CompletableFuture<Void> first = w.awaitAsync(5, TimeUnit.SECONDS, 1).toCompletableFuture();
+    CompletableFuture<Void> second = w.awaitAsync(5, TimeUnit.SECONDS, 2).toCompletableFuture();
+
+    try {
+      w.fail("test");
+    } catch (AssertionError expected) {
+    }
+
+    assertTrue(first.isCompletedExceptionally());
+    assertTrue(second.isCompletedExceptionally());
+    try {
+      w.await();
+      fail();
+    } catch (AssertionError e) {
+      assertEquals(e.getMessage(), "test");
+    }
+
+    w.nextGeneration();
+    w.resume();
+    w.await();
+  }
+
+  @Test(expectedExceptions = TimeoutException.class)
+  public void shouldTimeoutGenerationalAwaiters() throws Throwable {
+    Waiter w = Waiter.builder().generational().build();
+    w.resume();
+    w.await(20, 2);
+  }
+
+  public void shouldAwaitAll() throws Throwable {
+    final List<Waiter> waiters = Arrays.asList(new Waiter(), new Waiter(), new Waiter());
+    waiters.get(0).resume();
+
+    new Thread(new Runnable() {
+      public void run() {
+        waiters.get(1).resume();
+        waiters.get(2).resume();
+      }
+    }).start();
+
+    Waiter.awaitAll(waiters, 5, TimeUnit.SECONDS);
+
+    // Waiters should be reusable afterwards
+    waiters.get(0).resume();
+    waiters.get(0).await();
+  }
+
+  public void shouldFailAwaitAllFast() throws Throwable {
+    final List<Waiter> waiters = Arrays.asList(new Waiter(), new Waiter());
+
+    new Thread(new Runnable() {
+      public void run() {
+        waiters.get(1).fail(new IllegalStateException());
+      }
+    }).start();
+
+    long start = System.nanoTime();
+    try {
+      Waiter.awaitAll(waiters, 10, TimeUnit.SECONDS);
+      fail();
+    } catch (AssertionError e) {
+      assertTrue(e.getCause() instanceof IllegalStateException);
+      assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+    }
+  }
+
+  public void shouldReportProgressWhenAwaitAllTimesOut() throws Throwable {
+    List<Waiter> waiters = Arrays.asList(new Waiter(), new Waiter());
+    waiters.get(0).resume();
+
+    try {
+      Waiter.awaitAll(waiters, 20, TimeUnit.MILLISECONDS);
+      fail();
+    } catch (TimeoutException e) {
+      assertTrue(e.getMessage().contains("waiter 0: resumed"));
+      assertTrue(e.getMessage().contains("waiter 1: actualResumes: 0 of 1"));
+    }
+  }
+
+  public void shouldAwaitAny() throws Throwable {
+    final List<Waiter> waiters = Arrays.asList(new Waiter(), new Waiter());
+
+    new Thread(new Runnable() {
+      public void run() {
+        waiters.get(1).resume();
+      }
+    }).start();
+
+    Waiter.awaitAny(waiters, 5, TimeUnit.SECONDS);
+    assertFalse(waiters.get(0).awaitAsync().toCompletableFuture().isDone());
+  }
+
+  public void shouldCollectFailures() throws Throwable {
+    Waiter waiter = Waiter.builder().collectFailures(3).build();
+    for (int i = 0; i < 5; i++) {
+      try {
+        waiter.fail("failure " + i);
+      } catch (AssertionError expected) {
+      }
+    }
+
+    try {
+      waiter.await(0);
+      fail();
+    } catch (AssertionError e) {
+      assertEquals(e.getMessage(), "failure 0");
+      Throwable[] suppressed = e.getSuppressed();
+      assertEquals(suppressed.length, 3);
+      assertEquals(suppressed[0].getMessage(), "failure 1");
+      assertEquals(suppressed[1].getMessage(), "failure 2");
+      assertEquals(suppressed[2].getMessage(), "2 additional failures were dropped");
+    }
+
+    // Failures are cleared once thrown
+    waiter.resume();
+    waiter.await(0);
+  }
+
+  public void shouldDedupeFailures() throws Throwable {
+    Waiter waiter = Waiter.builder().dedupeFailures(2).build();
+    int traced = 0;
+    for (int i = 0; i < 500; i++) {
+      try {
+        waiter.assertEquals(1, 2);
+      } catch (AssertionError e) {
+        if (e.getStackTrace().length > 0)
+          traced++;
+      }
+    }
+    try {
+      waiter.fail(new IOException("boom"));
+    } catch (AssertionError expected) {
+    }
+    assertEquals(traced, 2);
+
+    try {
+      waiter.await(0);
+      fail();
+    } catch (AssertionError e) {
+      assertEquals(e.getMessage(), "expected:<1> but was:<2>");
+      Throwable[] suppressed = e.getSuppressed();
+      assertEquals(suppressed.length, 2);
+      assertTrue(suppressed[0].getMessage().startsWith("500 x expected:<1> but was:<2> at WaiterTest.java:"));
+      assertTrue(suppressed[1].getMessage().startsWith("1 x java.io.IOException: boom at WaiterTest.java:"));
+    }
+  }
+
+  public void shouldSupplyMessagesOnlyOnFailure() throws Throwable {
+    final Waiter waiter = new Waiter();
+    final AtomicInteger supplied = new AtomicInteger();
+    Supplier<String> message = () -> "message " + supplied.incrementAndGet();
+
+    waiter.assertEquals(1, 1, message);
+    waiter.assertTrue(true, message);
+    waiter.assertFalse(false, message);
+    waiter.assertNull(null, message);
+    waiter.assertNotNull(this, message);
+    waiter.assertThat(1, org.hamcrest.CoreMatchers.is(1), message);
+    assertEquals(supplied.get(), 0);
+
+    try {
+      waiter.assertEquals(1, 2, message);
+      fail();
+    } catch (AssertionError e) {
+      assertEquals(e.getMessage(), "message 1 expected:<1> but was:<2>");
+    }
+    try {
+      waiter.await(0);
+      fail();
+    } catch (AssertionError e) {
+      assertEquals(e.getMessage(), "message 1 expected:<1> but was:<2>");
+    }
+  }
+
+  public void shouldAssertPrimitiveAndArrayEquality() {
+    Waiter waiter = new Waiter();
+    waiter.assertEquals(true, true);
+    waiter.assertEquals((byte) 1, (byte) 1);
+    waiter.assertEquals('a', 'a');
+    waiter.assertEquals(1, 1);
+    waiter.assertEquals(1L, 1L);
+    waiter.assertEquals(1.0, 1.05, 0.1);
+    waiter.assertEquals(Double.NaN, Double.NaN, 0);
+    waiter.assertEquals(null, null);
+    waiter.assertArrayEquals(new int[] { 1, 2 }, new int[] { 1, 2 });
+    waiter.assertArrayEquals(new double[] { 1.5 }, new double[] { 1.5 });
+    waiter.assertArrayEquals(new Object[] { new int[] { 1 } }, new Object[] { new int[] { 1 } });
+
+    try {
+      waiter.assertEquals(1L, 2L);
+      fail();
+    } catch (AssertionError e) {
+      assertEquals(e.getMessage(), "expected:<1> but was:<2>");
+    }
+    try {
+      waiter.assertEquals(1.0, 1.2, 0.1);
+      fail();
+    } catch (AssertionError e) {
+      assertEquals(e.getMessage(), "expected:<1.0> but was:<1.2>");
+    }
+    try {
+      waiter.assertArrayEquals(new int[] { 1, 2 }, new int[] { 1, 3 });
+      fail();
+    } catch (AssertionError e) {
+      assertEquals(e.getMessage(), "expected:<[1, 2]> but was:<[1, 3]>");
+    }
+  }
+
+  public void shouldCreateStacklessSecondaryFailures() throws Throwable {
+    Waiter waiter = Waiter.builder().stacklessSecondaryFailures().build();
+    for (int i = 0; i < 2; i++) {
+      try {
+        waiter.fail("first");
+      } catch (AssertionError e) {
+        assertTrue(e.getStackTrace().length > 0);
+      }
+      try {
+        waiter.fail("second");
+      } catch (AssertionError e) {
+        assertEquals(e.getStackTrace().length, 0);
+      }
+      try {
+        waiter.fail(new IOException());
+      } catch (AssertionError e) {
+        assertEquals(e.getStackTrace().length, 0);
+        assertTrue(e.getCause() instanceof IOException);
+      }
+
+      try {
+        waiter.await(0);
+        fail();
+      } catch (AssertionError e) {
+        assertEquals(e.getMessage(), "first");
+      }
+    }
+  }
+
+  /**
+   * Asserts that worker loops observe a failure from another worker and stop.
+   */
+  public void shouldSignalWorkersToStopOnFailure() throws Throwable {
+    final Waiter waiter = new Waiter();
+    final AtomicInteger stoppedWorkers = new AtomicInteger();
+    Thread[] workers = new Thread[3];
+    for (int i = 0; i < workers.length; i++) {
+      final int worker = i;
+      workers[i] = new Thread(new Runnable() {
+        public void run() {
+          for (int j = 0; !waiter.shouldStop(); j++) {
+            try {
+              waiter.assertTrue(worker != 0 || j != 1000, () -> "broken invariant");
+            } catch (AssertionError expected) {
+            }
+          }
+          stoppedWorkers.incrementAndGet();
+        }
+      });
+      workers[i].start();
+    }
+
+    try {
+      waiter.await(5000);
+      fail();
+    } catch (AssertionError e) {
+      assertEquals(e.getMessage(), "broken invariant");
+    }
+    for (Thread worker : workers)
+      worker.join(5000);
+    assertEquals(stoppedWorkers.get(), 3);
+    assertTrue(waiter.shouldStop());
+    assertFalse(waiter.isFailed());
+
+    waiter.resume();
+    waiter.await(0);
+    assertFalse(waiter.shouldStop());
+  }
+
+  public void shouldSignalWorkersToStopOnTimeout() throws Throwable {
+    Waiter waiter = new Waiter();
+    try {
+      waiter.await(10);
+      fail();
+    } catch (TimeoutException expected) {
+    }
+    assertTrue(waiter.shouldStop());
+    assertFalse(waiter.isFailed());
+  }
+
+  public void shouldInterruptRegisteredWorkersOnFailure() throws Throwable {
+    final Waiter waiter = new Waiter();
+    final CountDownLatch started = new CountDownLatch(2);
+    Runnable sleeper = new Runnable() {
+      public void run() {
+        started.countDown();
+        try {
+          Thread.sleep(60000);
+        } catch (InterruptedException expected) {
+        }
+      }
+    };
+    Thread registered = waiter.register(new Thread(sleeper));
+    registered.start();
+    Thread pooled = waiter.threadFactory().newThread(sleeper);
+    assertTrue(pooled.isDaemon());
+    pooled.start();
+    started.await();
+
+    new Thread(new Runnable() {
+      public void run() {
+        waiter.fail("failed");
+      }
+    }).start();
+
+    try {
+      waiter.await(5000);
+      fail();
+    } catch (AssertionError expected) {
+    }
+    assertFalse(registered.isAlive());
+    assertFalse(pooled.isAlive());
+  }
+
+  public void shouldInterruptRegisteredWorkersOnTimeout() throws Throwable {
+    Waiter waiter = Waiter.builder().workerJoinTimeout(5, TimeUnit.SECONDS).build();
+    final AtomicInteger interrupted = new AtomicInteger();
+    Thread worker = waiter.register(new Thread(new Runnable() {
+      public void run() {
+        try {
+          Thread.sleep(60000);
+        } catch (InterruptedException e) {
+          interrupted.incrementAndGet();
+        }
+      }
+    }));
+    worker.start();
+
+    try {
+      waiter.await(10);
+      fail();
+    } catch (TimeoutException expected) {
+    }
+    assertFalse(worker.isAlive());
+    assertEquals(interrupted.get(), 1);
+  }
+
+  public void shouldRunConcurrently() throws Throwable {
+    Waiter waiter = new Waiter();
+    final AtomicInteger count = new AtomicInteger();
+    RunResult result = waiter.runConcurrently(4, 10000, new IntConsumer() {
+      public void accept(int iteration) {
+        count.incrementAndGet();
+      }
+    });
+
+    assertEquals(count.get(), 40000);
+    assertEquals(result.threads(), 4);
+    assertEquals(result.operations(), 40000);
+    for (int i = 0; i < 4; i++) {
+      assertEquals(result.operations(i), 10000);
+      assertTrue(result.opsPerSecond(i) > 0);
+    }
+    assertTrue(result.opsPerSecond() > 0);
+
+    // The Waiter can be reused once the run completes
+    waiter.resume();
+    waiter.await(0);
+  }
+
+  @Test(timeOut = 10000)
+  public void shouldStopRunningConcurrentlyOnFailure() throws Throwable {
+    final Waiter waiter = new Waiter();
+    try {
+      waiter.runConcurrently(4, Integer.MAX_VALUE, new IntConsumer() {
+        public void accept(int iteration) {
+          waiter.assertTrue(iteration < 1000);
+        }
+      });
+      fail();
+    } catch (AssertionError e) {
+      assertEquals(e.getMessage(), "expected true");
+    }
+  }
+
+  @Test(timeOut = 10000)
+  public void shouldRunConcurrentlyAgainAfterFailure() throws Throwable {
+    final Waiter waiter = new Waiter();
+    try {
+      waiter.runConcurrently(2, 10, new IntConsumer() {
+        public void accept(int iteration) {
+          waiter.fail("first run");
+        }
+      });
+      fail();
+    } catch (AssertionError expected) {
+    }
+
+    RunResult result = waiter.runConcurrently(2, 10, new IntConsumer() {
+      public void accept(int iteration) {
+      }
+    });
+    assertEquals(result.operations(), 20);
+  }
+
+  /**
+   * Asserts that threads finishing after a failed run do not resume a later await.
+   */
+  @Test(timeOut = 10000, expectedExceptions = TimeoutException.class)
+  public void shouldNotResumeAwaitAfterFailedRun() throws Throwable {
+    final Waiter waiter = new Waiter();
+    try {
+      waiter.runConcurrently(4, 1_000_000, new IntConsumer() {
+        public void accept(int iteration) {
+          waiter.assertTrue(iteration < 1000);
+        }
+      });
+      fail();
+    } catch (AssertionError expected) {
+    }
+
+    Thread.sleep(50);
+    waiter.await(20);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void shouldRejectSweepsWithoutIterations() throws Throwable {
+    new Waiter().sweep(2, 0, new IntConsumer() {
+      public void accept(int iteration) {
+      }
+    });
+  }
+
+  public void shouldSweepThreadCounts() throws Throwable {
+    Waiter waiter = new Waiter();
+    final AtomicInteger count = new AtomicInteger();
+    SweepResult result = waiter.sweep(3, 1000, new IntConsumer() {
+      public void accept(int iteration) {
+        count.incrementAndGet();
+      }
+    });
+
+    assertEquals(result.threadCounts(), new int[] { 1, 2, 3 });
+    assertEquals(count.get(), 7000);
+    assertTrue(result.throughput(2) > 0);
+    assertEquals(result.efficiency(1), 1.0, 1e-9);
+    assertTrue(result.contention() >= 0);
+    assertTrue(result.coherency() >= 0);
+    result.assertEfficiency(1, 1.0);
+
+    try {
+      result.assertEfficiency(8, 100);
+      fail();
+    } catch (AssertionError e) {
+      assertTrue(e.getMessage().startsWith("expected efficiency at 8 threads >= "));
+    }
+  }
+
+  public void shouldRecordLatencies() throws Throwable {
+    final Waiter waiter = new Waiter();
+    assertEquals(waiter.latencies().count(), 0);
+
+    for (int i = 0; i < 4; i++)
+      new Thread(new Runnable() {
+        public void run() {
+          for (int j = 0; j < 25; j++) {
+            long token = waiter.begin();
+            try {
+              Thread.sleep(j == 24 ? 20 : 0);
+            } catch (InterruptedException ignore) {
+            }
+            waiter.resumeSince(token);
+          }
+        }
+      }).start();
+
+    waiter.await(10000, 100);
+    Latencies latencies = waiter.latencies();
+    assertEquals(latencies.count(), 100);
+    assertTrue(latencies.percentile(50, TimeUnit.MILLISECONDS) < 20);
+    assertTrue(latencies.percentile(99, TimeUnit.MILLISECONDS) >= 19);
+    assertTrue(latencies.max(TimeUnit.MILLISECONDS) >= 19);
+
+    // Only latencies recorded since the last await are reported
+    waiter.resumeSince(waiter.begin());
+    waiter.await(0);
+    assertEquals(waiter.latencies().count(), 1);
+  }
+
+  public void shouldAssertLatencyPercentiles() throws Throwable {
+    Waiter waiter = new Waiter();
+    waiter.assertPercentile(50, 1, TimeUnit.SECONDS);
+    waiter.assertPercentile(99.9, 10, TimeUnit.MILLISECONDS);
+    for (int i = 0; i < 10; i++)
+      waiter.resumeSince(waiter.begin());
+    waiter.await(0, TimeUnit.MILLISECONDS, 10);
+
+    long token = waiter.begin();
+    Thread.sleep(20);
+    waiter.resumeSince(token);
+    try {
+      waiter.await(0);
+      fail();
+    } catch (AssertionError e) {
+      assertTrue(e.getMessage().startsWith("expected p99.9 latency <= 10 milliseconds but was "), e.getMessage());
+      assertTrue(e.getMessage().endsWith(" over 1 operations"));
+    }
+  }
+
+  public void shouldAssertMaxLatency() throws Throwable {
+    final Waiter waiter = new Waiter();
+    waiter.assertMaxLatency(5, TimeUnit.MILLISECONDS);
+    final long token = waiter.begin();
+    new Thread(new Runnable() {
+      public void run() {
+        try {
+          Thread.sleep(20);
+        } catch (InterruptedException ignore) {
+        }
+        waiter.resumeSince(token);
+      }
+    }).start();
+
+    try {
+      waiter.await(5000);
+      fail();
+    } catch (AssertionError e) {
+      assertTrue(e.getMessage().startsWith("expected max latency <= 5 milliseconds but was "), e.getMessage());
+    }
+    assertTrue(waiter.latencies().max(TimeUnit.MILLISECONDS) >= 19);
+  }
+
+  public void shouldRejectInvalidPercentiles() {
+    try {
+      new Waiter().assertPercentile(100.1, 1, TimeUnit.SECONDS);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+  }
 }
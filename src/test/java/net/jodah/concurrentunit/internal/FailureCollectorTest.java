@@ -0,0 +1,57 @@
+package net.jodah.concurrentunit.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.testng.annotations.Test;
+
+@Test
+public class FailureCollectorTest {
+  public void shouldAttachSecondaryFailuresOnce() {
+    FailureCollector failures = new FailureCollector(4);
+    assertFalse(failures.isFailed());
+    assertNull(failures.get());
+
+    AssertionError primary = new AssertionError("primary");
+    failures.record(primary);
+    failures.record(new AssertionError("secondary"));
+    assertTrue(failures.isFailed());
+    assertEquals(failures.get(), primary);
+    assertEquals(failures.get(), primary);
+    assertEquals(primary.getSuppressed().length, 1);
+
+    failures.clear();
+    assertFalse(failures.isFailed());
+    assertNull(failures.get());
+  }
+
+  /**
+   * Asserts that concurrently recorded failures beyond the capacity are counted rather than retained.
+   */
+  public void shouldBoundConcurrentlyRecordedFailures() throws Throwable {
+    final FailureCollector failures = new FailureCollector(16);
+    final int threads = 4;
+    final int failuresPerThread = 25000;
+    final CountDownLatch latch = new CountDownLatch(threads);
+
+    for (int i = 0; i < threads; i++)
+      new Thread(new Runnable() {
+        @Override
+        public void run() {
+          for (int j = 0; j < failuresPerThread; j++)
+            failures.record(new AssertionError());
+          latch.countDown();
+        }
+      }).start();
+
+    latch.await();
+    assertEquals(failures.dropped(), threads * failuresPerThread - 16);
+    Throwable[] suppressed = failures.get().getSuppressed();
+    assertEquals(suppressed.length, 16);
+    assertEquals(suppressed[15].getMessage(), (threads * failuresPerThread - 16) + " additional failures were dropped");
+  }
+}
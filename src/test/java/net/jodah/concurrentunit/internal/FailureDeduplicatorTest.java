@@ -0,0 +1,41 @@
+package net.jodah.concurrentunit.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+@Test
+public class FailureDeduplicatorTest {
+  public void shouldCountFailuresByDescription() {
+    FailureDeduplicator failures = new FailureDeduplicator(1);
+    AssertionError first = failures.newFailure("expected:<1> but was:<2>", null);
+    AssertionError second = failures.newFailure("expected:<1> but was:<2>", null);
+    assertTrue(first.getStackTrace().length > 0);
+    assertEquals(second.getStackTrace().length, 0);
+
+    failures.record(first);
+    failures.record(second);
+    failures.record(failures.newFailure(null, new IllegalStateException("bad state")));
+    assertTrue(failures.isFailed());
+    assertEquals(failures.count("expected:<1> but was:<2>"), 2);
+    assertEquals(failures.count("java.lang.IllegalStateException: bad state"), 1);
+    assertEquals(failures.get(), first);
+    assertEquals(first.getSuppressed().length, 2);
+
+    failures.clear();
+    assertFalse(failures.isFailed());
+    assertEquals(failures.count("expected:<1> but was:<2>"), 0);
+  }
+
+  public void shouldBoundDistinctDescriptions() {
+    FailureDeduplicator failures = new FailureDeduplicator(0);
+    for (int i = 0; i < FailureDeduplicator.MAX_DESCRIPTIONS * 2; i++)
+      failures.record(failures.newFailure("failure " + i, null));
+
+    assertEquals(failures.count("failure 0"), 1);
+    assertEquals(failures.count("other failures"), FailureDeduplicator.MAX_DESCRIPTIONS);
+    assertEquals(failures.get().getSuppressed().length, FailureDeduplicator.MAX_DESCRIPTIONS + 1);
+  }
+}
@@ -0,0 +1,70 @@
+package net.jodah.concurrentunit.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.annotations.Test;
+
+import net.jodah.concurrentunit.Waiter;
+
+@Test
+public class GenerationsTest {
+  public void shouldReleaseAwaitersAtTheirThresholds() {
+    Generations generations = new Generations();
+    Generations.Awaiter first = generations.await(1);
+    Generations.Awaiter second = generations.await(2);
+
+    generations.resume(1);
+    assertTrue(first.isDone());
+    assertFalse(second.isDone());
+    assertEquals(second.actualResumes(), 1);
+    generations.resume(1);
+    assertTrue(second.isDone());
+  }
+
+  public void shouldCountResumesFromGenerationStart() {
+    Generations generations = new Generations();
+    generations.resume(5);
+    generations.nextGeneration();
+    assertEquals(generations.resumes(), 0);
+
+    Generations.Awaiter awaiter = generations.await(5);
+    assertFalse(awaiter.isDone());
+    generations.resume(5);
+    assertTrue(awaiter.isDone());
+  }
+
+  /**
+   * Asserts that awaiters registering concurrently with resumers are all released.
+   */
+  public void shouldReleaseAwaitersRegisteredConcurrentlyWithResumes() throws Throwable {
+    final Generations generations = new Generations();
+    final int resumers = 4;
+    final int resumesPerThread = 10000;
+    final Waiter waiter = new Waiter();
+
+    for (int i = 0; i < resumers; i++)
+      new Thread(new Runnable() {
+        @Override
+        public void run() {
+          for (int j = 0; j < resumesPerThread; j++)
+            generations.resume(1);
+          waiter.resume();
+        }
+      }).start();
+
+    List<CompletableFuture<Void>> awaiters = new ArrayList<CompletableFuture<Void>>();
+    for (int i = 1; i <= resumers * resumesPerThread; i += 97)
+      awaiters.add(generations.await(i));
+
+    waiter.await(5000, resumers);
+    for (CompletableFuture<Void> awaiter : awaiters)
+      awaiter.get(1, TimeUnit.SECONDS);
+  }
+}
@@ -0,0 +1,47 @@
+package net.jodah.concurrentunit.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+@Test
+public class LatencyRecorderTest {
+  public void shouldMapValuesToContiguousBuckets() {
+    assertEquals(LatencyRecorder.BUCKETS, 1888);
+    assertEquals(LatencyRecorder.bucket(0), 0);
+    assertEquals(LatencyRecorder.bucket(63), 63);
+    assertEquals(LatencyRecorder.bucket(64), 64);
+    assertEquals(LatencyRecorder.bucket(66), 65);
+    assertEquals(LatencyRecorder.bucket(128), 96);
+    assertEquals(LatencyRecorder.upperBound(LatencyRecorder.BUCKETS - 1), Long.MAX_VALUE);
+
+    for (int bucket = 1; bucket < LatencyRecorder.BUCKETS; bucket++) {
+      long lowerBound = LatencyRecorder.upperBound(bucket - 1) + 1;
+      assertEquals(LatencyRecorder.bucket(lowerBound), bucket);
+      assertEquals(LatencyRecorder.bucket(LatencyRecorder.upperBound(bucket)), bucket);
+    }
+  }
+
+  public void shouldBoundRelativeError() {
+    for (long value = 1; value > 0 && value < Long.MAX_VALUE / 3; value = value * 3 + 1) {
+      long upperBound = LatencyRecorder.upperBound(LatencyRecorder.bucket(value));
+      assertTrue(upperBound >= value);
+      assertTrue(upperBound - value <= value / 32, "value: " + value);
+    }
+  }
+
+  public void shouldRecordCounts() {
+    LatencyRecorder recorder = new LatencyRecorder();
+    recorder.record(-5);
+    recorder.record(10);
+    recorder.record(10);
+    recorder.record(1000000);
+
+    long[] totals = new long[LatencyRecorder.BUCKETS];
+    assertEquals(recorder.addTo(totals), 1000000);
+    assertEquals(totals[0], 1);
+    assertEquals(totals[10], 2);
+    assertEquals(totals[LatencyRecorder.bucket(1000000)], 1);
+  }
+}
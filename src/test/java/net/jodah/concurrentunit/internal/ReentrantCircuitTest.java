@@ -141,4 +141,59 @@ public class ReentrantCircuitTest {
     circuit.close();
     waiter.await(500);
   }
+
+  public void shouldReleaseSpinningWaiters() throws Throwable {
+    final ReentrantCircuit spinningCircuit = new ReentrantCircuit(true, true);
+    final Waiter waiter = new Waiter();
+
+    for (int i = 0; i < 50; i++) {
+      spinningCircuit.open();
+      new Thread(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            spinningCircuit.await();
+            waiter.resume();
+          } catch (InterruptedException e) {
+          }
+        }
+      }).start();
+
+      if (i % 10 == 0)
+        Thread.sleep(10);
+      spinningCircuit.close();
+      waiter.await(1000);
+    }
+  }
+
+  @Test(expectedExceptions = InterruptedException.class)
+  public void shouldInterruptSpinningWaiters() throws Throwable {
+    ReentrantCircuit spinningCircuit = new ReentrantCircuit(true, true);
+    spinningCircuit.open();
+    Thread.currentThread().interrupt();
+    spinningCircuit.await();
+  }
+
+  public void shouldReleaseNonFairWaiters() throws Throwable {
+    final ReentrantCircuit nonFairCircuit = new ReentrantCircuit(false, false);
+    nonFairCircuit.open();
+
+    final Waiter waiter = new Waiter();
+    for (int i = 0; i < 3; i++)
+      new Thread(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            nonFairCircuit.await();
+            waiter.resume();
+          } catch (InterruptedException e) {
+          }
+        }
+      }).start();
+
+    Thread.sleep(300);
+    nonFairCircuit.open();
+    nonFairCircuit.close();
+    waiter.await(1000, 3);
+  }
 }
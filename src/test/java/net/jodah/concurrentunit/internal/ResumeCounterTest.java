@@ -0,0 +1,124 @@
+package net.jodah.concurrentunit.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+@Test
+public class ResumeCounterTest {
+  @DataProvider
+  public Object[][] counters() {
+    return new Object[][] { { new PackedResumeCounter() }, { new StripedResumeCounter() } };
+  }
+
+  @Test(dataProvider = "counters")
+  public void shouldWaitUntilExpectedResumes(ResumeCounter counter) {
+    assertTrue(counter.arm(3));
+    assertFalse(counter.resume(1));
+    assertFalse(counter.resume(1));
+    assertEquals(counter.remaining(), 1);
+    assertTrue(counter.resume(1));
+    assertEquals(counter.remaining(), 0);
+
+    // Only the satisfying resume should report the transition
+    assertFalse(counter.resume(1));
+  }
+
+  @Test(dataProvider = "counters")
+  public void shouldNotWaitWhenResumesAlreadyOccurred(ResumeCounter counter) {
+    assertFalse(counter.resume(1));
+    assertFalse(counter.resume(1));
+    assertFalse(counter.arm(2));
+  }
+
+  @Test(dataProvider = "counters")
+  public void shouldReset(ResumeCounter counter) {
+    counter.resume(1);
+    counter.reset();
+    assertEquals(counter.remaining(), 0);
+    assertTrue(counter.arm(1));
+    counter.reset();
+    assertFalse(counter.resume(1));
+  }
+
+  @Test(dataProvider = "counters")
+  public void shouldConsumeResumesThatAlreadyOccurred(ResumeCounter counter) {
+    assertFalse(counter.tryConsume(1));
+    counter.resume(1);
+    assertFalse(counter.tryConsume(2));
+    counter.resume(1);
+    assertTrue(counter.tryConsume(2));
+    assertEquals(counter.remaining(), 0);
+    assertTrue(counter.arm(1));
+  }
+
+  @Test(dataProvider = "counters")
+  public void shouldNotConsumeWhileWaiting(ResumeCounter counter) {
+    assertTrue(counter.arm(1));
+    assertFalse(counter.tryConsume(0));
+    assertTrue(counter.isWaiting());
+  }
+
+  /**
+   * Asserts that resumes larger than a batch, mixed with single resumes, still wake the awaiter exactly once.
+   */
+  public void stripedCounterShouldWakeWhenMixedBatchSizesSatisfyTarget() throws Throwable {
+    final int large = StripedResumeCounter.BATCH * 3 + 1;
+    for (int round = 0; round < 100; round++) {
+      final StripedResumeCounter counter = new StripedResumeCounter();
+      final int threads = 4;
+      final int resumesPerThread = 1000;
+      assertTrue(counter.arm((long) threads / 2 * resumesPerThread * large + (long) threads / 2 * resumesPerThread));
+
+      final AtomicInteger satisfied = new AtomicInteger();
+      Thread[] resumers = new Thread[threads];
+      for (int i = 0; i < threads; i++) {
+        final int count = i % 2 == 0 ? large : 1;
+        resumers[i] = new Thread(new Runnable() {
+          public void run() {
+            for (int j = 0; j < resumesPerThread; j++)
+              if (counter.resume(count))
+                satisfied.incrementAndGet();
+          }
+        });
+        resumers[i].start();
+      }
+      for (Thread resumer : resumers)
+        resumer.join();
+
+      assertEquals(satisfied.get(), 1);
+      assertEquals(counter.remaining(), 0);
+    }
+  }
+
+  public void stripedCounterShouldWakeWhenBatchedResumesSatisfyTarget() throws Throwable {
+    StripedResumeCounter counter = new StripedResumeCounter();
+    int threads = 4;
+    int resumesPerThread = StripedResumeCounter.BATCH * 100 + 7;
+    assertTrue(counter.arm((long) threads * resumesPerThread));
+
+    AtomicInteger satisfied = new AtomicInteger();
+    Thread[] resumers = new Thread[threads];
+    for (int i = 0; i < threads; i++) {
+      resumers[i] = new Thread(new Runnable() {
+        public void run() {
+          for (int j = 0; j < resumesPerThread; j++)
+            if (counter.resume(1))
+              satisfied.incrementAndGet();
+        }
+      });
+      resumers[i].start();
+    }
+    for (Thread resumer : resumers)
+      resumer.join();
+
+    assertEquals(satisfied.get(), 1);
+    assertFalse(counter.isWaiting());
+    assertEquals(counter.remaining(), 0);
+  }
+}
@@ -0,0 +1,51 @@
+package net.jodah.concurrentunit.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+@Test
+public class ScalabilityFitTest {
+  private static final int[] THREAD_COUNTS = { 1, 2, 4, 8, 16, 32, 64 };
+
+  public void shouldRecoverCoefficientsFromSyntheticThroughput() {
+    ScalabilityFit fit = ScalabilityFit.fit(THREAD_COUNTS, throughputs(0.05, 0.001));
+    assertEquals(fit.contention(), 0.05, 1e-9);
+    assertEquals(fit.coherency(), 0.001, 1e-9);
+    assertEquals(fit.peakThreads(), Math.sqrt(0.95 / 0.001), 1e-6);
+    assertEquals(fit.relativeCapacity(1), 1.0, 1e-9);
+  }
+
+  public void shouldFitLinearScaling() {
+    ScalabilityFit fit = ScalabilityFit.fit(THREAD_COUNTS, throughputs(0, 0));
+    assertEquals(fit.contention(), 0, 1e-9);
+    assertEquals(fit.coherency(), 0, 1e-9);
+    assertEquals(fit.peakThreads(), Double.POSITIVE_INFINITY);
+  }
+
+  public void shouldClampSuperlinearScaling() {
+    double[] throughputs = new double[THREAD_COUNTS.length];
+    for (int i = 0; i < THREAD_COUNTS.length; i++)
+      throughputs[i] = 1000 * Math.pow(THREAD_COUNTS[i], 1.2);
+
+    ScalabilityFit fit = ScalabilityFit.fit(THREAD_COUNTS, throughputs);
+    assertTrue(fit.contention() >= 0);
+    assertTrue(fit.coherency() >= 0);
+  }
+
+  public void shouldFitContentionFromTwoLevels() {
+    ScalabilityFit fit = ScalabilityFit.fit(new int[] { 1, 2 }, new double[] { 1000, 1600 });
+    assertEquals(fit.contention(), 0.25, 1e-9);
+    assertEquals(fit.coherency(), 0, 1e-9);
+  }
+
+  private static double[] throughputs(double contention, double coherency) {
+    double[] throughputs = new double[THREAD_COUNTS.length];
+    for (int i = 0; i < THREAD_COUNTS.length; i++) {
+      double n = THREAD_COUNTS[i];
+      throughputs[i] = 1000 * n / (1 + contention * (n - 1) + coherency * n * (n - 1));
+    }
+    return throughputs;
+  }
+}
@@ -0,0 +1,31 @@
+package net.jodah.concurrentunit.internal;
+
+import static org.testng.Assert.assertEquals;
+
+import org.testng.annotations.Test;
+
+@Test
+public class StripedLatencyRecorderTest {
+  public void shouldRecordFromManyThreads() throws Throwable {
+    final StripedLatencyRecorder recorder = new StripedLatencyRecorder();
+    Thread[] threads = new Thread[64];
+    for (int i = 0; i < threads.length; i++) {
+      final long nanos = i;
+      threads[i] = new Thread(new Runnable() {
+        public void run() {
+          for (int j = 0; j < 100; j++)
+            recorder.record(nanos);
+        }
+      });
+      threads[i].start();
+    }
+    for (Thread thread : threads)
+      thread.join();
+
+    long[] totals = new long[LatencyRecorder.BUCKETS];
+    assertEquals(recorder.addTo(totals), 63);
+    assertEquals(recorder.count(), 6400);
+    for (int i = 0; i < threads.length; i++)
+      assertEquals(totals[i], 100);
+  }
+}
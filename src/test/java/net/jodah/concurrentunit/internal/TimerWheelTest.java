@@ -0,0 +1,110 @@
+package net.jodah.concurrentunit.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import net.jodah.concurrentunit.Waiter;
+import net.jodah.concurrentunit.internal.TimerWheel.Timeout;
+
+@Test
+public class TimerWheelTest {
+  TimerWheel timer;
+
+  @BeforeMethod
+  protected void beforeMethod() {
+    timer = new TimerWheel("test-timer", 1, TimeUnit.MILLISECONDS, 8);
+  }
+
+  public void shouldExpireAfterDelay() throws Throwable {
+    final Waiter waiter = new Waiter();
+    final long start = System.nanoTime();
+    Timeout timeout = timer.schedule(new Runnable() {
+      @Override
+      public void run() {
+        waiter.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        waiter.resume();
+      }
+    }, 50, TimeUnit.MILLISECONDS);
+
+    waiter.await(1000);
+    assertTrue(timeout.isExpired());
+    assertFalse(timeout.cancel());
+  }
+
+  public void shouldNotExpireCancelledTimeouts() throws Throwable {
+    final AtomicInteger expirations = new AtomicInteger();
+    Timeout timeout = timer.schedule(new Runnable() {
+      @Override
+      public void run() {
+        expirations.incrementAndGet();
+      }
+    }, 20, TimeUnit.MILLISECONDS);
+
+    assertTrue(timeout.cancel());
+    assertFalse(timeout.cancel());
+    Thread.sleep(100);
+    assertEquals(expirations.get(), 0);
+    assertFalse(timeout.isExpired());
+    assertEquals(timer.outstanding(), 0);
+  }
+
+  public void shouldNotExpireEffectivelyInfiniteDelays() throws Throwable {
+    final AtomicInteger expirations = new AtomicInteger();
+    Runnable expire = new Runnable() {
+      @Override
+      public void run() {
+        expirations.incrementAndGet();
+      }
+    };
+    Timeout max = timer.schedule(expire, Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+    Timeout half = timer.schedule(expire, Long.MAX_VALUE / 2, TimeUnit.MILLISECONDS);
+    Timeout nanos = timer.schedule(expire, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+
+    Thread.sleep(100);
+    assertEquals(expirations.get(), 0);
+    assertTrue(max.cancel());
+    assertTrue(half.cancel());
+    assertTrue(nanos.cancel());
+  }
+
+  /**
+   * Asserts that timeouts spanning multiple rotations of the wheel expire once each.
+   */
+  public void shouldExpireTimeoutsAcrossRounds() throws Throwable {
+    final Waiter waiter = new Waiter();
+    final int timeouts = 1000;
+    for (int i = 0; i < timeouts; i++)
+      timer.schedule(new Runnable() {
+        @Override
+        public void run() {
+          waiter.resume();
+        }
+      }, i % 50, TimeUnit.MILLISECONDS);
+
+    waiter.await(2000, timeouts);
+    assertEquals(timer.outstanding(), 0);
+  }
+
+  public void shouldRestartAfterIdle() throws Throwable {
+    final Waiter waiter = new Waiter();
+    Runnable resume = new Runnable() {
+      @Override
+      public void run() {
+        waiter.resume();
+      }
+    };
+
+    timer.schedule(resume, 5, TimeUnit.MILLISECONDS);
+    waiter.await(1000);
+    Thread.sleep(50);
+    timer.schedule(resume, 5, TimeUnit.MILLISECONDS);
+    waiter.await(1000);
+  }
+}